@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of asynchronous values.
+ * <p>
+ * Entries are evicted in least recently used order when cache size exceeds
+ * its limit, and expire after time-to-live since they were loaded.
+ * Concurrent requests of the same missing key share one loading future,
+ * failed results are not cached.
+ * </p>
+ * @param <K> Key type
+ * @param <V> Value type
+ * @since 1.0
+ */
+public final class AsyncCache<K, V> {
+
+    /**
+     * Cached futures.
+     */
+    private final ExpiringMap<K, CompletableFuture<V>> cache;
+
+    /**
+     * New cache.
+     * @param size Max number of entries
+     * @param ttl Time-to-live of entries
+     */
+    public AsyncCache(final long size, final Duration ttl) {
+        this.cache = new ExpiringMap<>(size, ttl);
+    }
+
+    /**
+     * Get cached value or load it.
+     * @param key Key
+     * @param loader Value loader for missing key
+     * @return Future with value
+     */
+    public CompletionStage<V> get(final K key, final Function<K, CompletionStage<V>> loader) {
+        final CompletableFuture<V> res = this.cache.computeIfAbsent(
+            key, ignored -> loader.apply(key).toCompletableFuture()
+        );
+        res.exceptionally(
+            err -> {
+                this.cache.remove(key, res);
+                return null;
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Put known value to cache.
+     * @param key Key
+     * @param value Value
+     */
+    public void put(final K key, final V value) {
+        this.cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    /**
+     * Invalidate cached value.
+     * @param key Key
+     */
+    public void invalidate(final K key) {
+        this.cache.remove(key);
+    }
+
+    /**
+     * Invalidate all cached values.
+     */
+    public void invalidateAll() {
+        this.cache.clear();
+    }
+}
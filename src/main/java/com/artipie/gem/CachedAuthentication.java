@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.http.auth.Authentication;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Authentication with cached results.
+ * <p>
+ * Successful and failed authentications are cached by SHA-256 hash of
+ * credentials, plain passwords are never kept in memory. Failed results are
+ * kept for shorter time, so fixed credentials are accepted soon. Cached users
+ * can be invalidated explicitly, e.g. when user is disabled.
+ * </p>
+ * @since 1.0
+ */
+public final class CachedAuthentication implements Authentication {
+
+    /**
+     * Origin authentication.
+     */
+    private final Authentication origin;
+
+    /**
+     * Authenticated users by credentials hash.
+     */
+    private final ExpiringMap<String, Authentication.User> users;
+
+    /**
+     * Hashes of credentials, which failed authentication.
+     */
+    private final ExpiringMap<String, Boolean> failures;
+
+    /**
+     * New cached authentication with default limits.
+     * @param origin Origin authentication
+     */
+    public CachedAuthentication(final Authentication origin) {
+        this(origin, 10_000L, Duration.ofMinutes(5L), Duration.ofSeconds(10L));
+    }
+
+    /**
+     * Primary ctor.
+     * @param origin Origin authentication
+     * @param size Max number of cached results
+     * @param ttl Time to keep successful result
+     * @param negative Time to keep failed result
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedAuthentication(final Authentication origin, final long size,
+        final Duration ttl, final Duration negative) {
+        this.origin = origin;
+        this.users = new ExpiringMap<>(size, ttl);
+        this.failures = new ExpiringMap<>(size, negative);
+    }
+
+    @Override
+    public Optional<Authentication.User> user(final String username, final String password) {
+        final String hash = CachedAuthentication.hash(username, password);
+        Optional<Authentication.User> res = this.users.get(hash);
+        if (!res.isPresent() && !this.failures.get(hash).isPresent()) {
+            res = this.origin.user(username, password);
+            if (res.isPresent()) {
+                this.users.put(hash, res.get());
+            } else {
+                this.failures.put(hash, true);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Invalidate cached results of user.
+     * @param username User name
+     */
+    public void invalidate(final String username) {
+        this.users.removeIf(user -> user.name().equals(username));
+        this.failures.clear();
+    }
+
+    /**
+     * Invalidate all cached results.
+     */
+    public void invalidateAll() {
+        this.users.clear();
+        this.failures.clear();
+    }
+
+    /**
+     * Hash of credentials.
+     * @param username User name
+     * @param password Password
+     * @return Hex SHA-256 hash
+     */
+    private static String hash(final String username, final String password) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder res = new StringBuilder();
+            for (final byte val : digest.digest()) {
+                res.append(String.format("%02x", val));
+            }
+            return res.toString();
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException(err);
+        }
+    }
+}
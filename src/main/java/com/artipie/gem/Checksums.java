@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * SHA-256 checksums of gem packages.
+ * <p>
+ * Checksum is stored alongside the gem in {@code [GEM KEY].sha256} item
+ * as hex string. Checksums of pushed gems are computed while upload is
+ * streamed to storage, checksum of gem without stored checksum is computed
+ * from gem content once and stored, so gem packages are not read again
+ * to build index or answer API requests.
+ * </p>
+ * @since 1.0
+ */
+public final class Checksums {
+
+    /**
+     * Checksum item suffix.
+     */
+    private static final String SUFFIX = ".sha256";
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New checksums.
+     * @param storage Repository storage
+     */
+    public Checksums(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Store gem checksum.
+     * @param gem Gem key
+     * @param sha Hex SHA-256 checksum
+     * @return Completable action
+     */
+    public CompletionStage<Void> save(final Key gem, final String sha) {
+        return this.storage.save(
+            Checksums.key(gem), new Content.From(sha.getBytes(StandardCharsets.US_ASCII))
+        );
+    }
+
+    /**
+     * Gem checksum, computed and stored if it's not stored yet.
+     * @param gem Gem key
+     * @return Future with hex SHA-256 checksum
+     */
+    public CompletionStage<String> get(final Key gem) {
+        final Key key = Checksums.key(gem);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<String> res;
+                if (exists) {
+                    res = this.storage.value(key).thenCompose(
+                        content -> new PublisherAs(content).string(StandardCharsets.US_ASCII)
+                    );
+                } else {
+                    res = this.storage.value(gem).thenCompose(
+                        content -> new ContentDigest(content, Digests.SHA256).hex()
+                    ).thenCompose(sha -> this.save(gem, sha).thenApply(none -> sha));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Remove stored gem checksum.
+     * @param gem Gem key
+     * @return Completable action
+     */
+    public CompletionStage<Void> remove(final Key gem) {
+        final Key key = Checksums.key(gem);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(key);
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Checksum item key.
+     * @param gem Gem key
+     * @return Checksum key
+     */
+    private static Key key(final Key gem) {
+        return new Key.From(String.format("%s%s", gem.string(), Checksums.SUFFIX));
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.gem.spec.GemSpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Compact index of gems, used by Bundler.
+ * <p>
+ * Index consists of {@code versions} file, which lists versions of all gems
+ * with checksums of their info files, {@code info/<name>} files with versions,
+ * dependencies and package checksums of each gem, and {@code names} file with
+ * all gem names. See
+ * <a href="https://guides.rubygems.org/rubygems-org-compact-index-api/">Compact
+ * Index API</a>.
+ * </p>
+ * <p>
+ * Index is updated incrementally: new lines are appended to info files and
+ * {@code versions} file, existing lines of {@code versions} are never changed.
+ * Removed (yanked) version is dropped from info file and listed in appended
+ * {@code versions} line with {@code -} prefix. Gems with invalid name tuples
+ * are not indexed. Whole index can be rebuilt with {@link #replace(Map)}.
+ * </p>
+ * @since 1.0
+ */
+public final class CompactIndex {
+
+    /**
+     * Versions file key.
+     */
+    public static final Key VERSIONS = new Key.From("versions");
+
+    /**
+     * Names file key.
+     */
+    public static final Key NAMES = new Key.From("names");
+
+    /**
+     * Separator of file header.
+     */
+    private static final String SEPARATOR = "---\n";
+
+    /**
+     * Default requirement, which is not written to info file.
+     */
+    private static final List<String> ANY = Collections.singletonList(">= 0");
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New compact index.
+     * @param storage Repository storage
+     */
+    public CompactIndex(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Add gems to compact index.
+     * @param gems Gem specs with SHA-256 checksums of gem packages
+     * @return Completion action
+     */
+    public CompletionStage<Void> add(final Map<GemSpec, String> gems) {
+        final Map<String, Map<GemSpec, String>> byname = CompactIndex.byName(gems);
+        final List<CompletableFuture<Optional<String>>> lines = byname.entrySet().stream()
+            .map(entry -> this.append(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
+        return CompletableFuture.allOf(lines.toArray(new CompletableFuture<?>[0])).thenCompose(
+            none -> this.versions(
+                lines.stream().map(CompletableFuture::join)
+                    .filter(Optional::isPresent).map(Optional::get)
+                    .collect(Collectors.toList())
+            )
+        ).thenCompose(none -> this.names(byname.keySet()));
+    }
+
+    /**
+     * Replace compact index with the given gems.
+     * <p>
+     * Info files of all gems are written from scratch, info files of gems,
+     * which are not in the list, are removed. {@code versions} file is
+     * written with new creation time and one line per gem, so clients
+     * re-download it completely.
+     * </p>
+     * @param gems Gem specs with SHA-256 checksums of gem packages
+     * @return Completion action
+     */
+    public CompletionStage<Void> replace(final Map<GemSpec, String> gems) {
+        final Map<String, Map<GemSpec, String>> byname = CompactIndex.byName(gems);
+        final List<CompletableFuture<String>> lines = byname.entrySet().stream().map(
+            entry -> {
+                final StringBuilder info = new StringBuilder(CompactIndex.SEPARATOR);
+                entry.getValue().forEach(
+                    (spec, sha) -> info.append(CompactIndex.line(spec, sha)).append('\n')
+                );
+                return this.save(GemKeys.info(entry.getKey()), info.toString()).thenApply(
+                    md5 -> String.format(
+                        "%s %s %s", entry.getKey(),
+                        entry.getValue().keySet().stream()
+                            .map(spec -> CompactIndex.version(spec.tuple()))
+                            .collect(Collectors.joining(",")),
+                        md5
+                    )
+                );
+            }
+        ).collect(Collectors.toList());
+        return CompletableFuture.allOf(lines.toArray(new CompletableFuture<?>[0])).thenCompose(
+            none -> this.storage.list(GemKeys.INFO)
+        ).thenCompose(
+            keys -> CompletableFuture.allOf(
+                keys.stream().filter(
+                    key -> key.parent().map(Key::string)
+                        .equals(Optional.of(GemKeys.INFO.string()))
+                        && !byname.containsKey(
+                            key.string().substring(GemKeys.INFO.string().length() + 1)
+                        )
+                ).map(key -> this.storage.delete(key).toCompletableFuture())
+                    .toArray(CompletableFuture<?>[]::new)
+            )
+        ).thenCompose(
+            none -> {
+                final StringBuilder versions = new StringBuilder(CompactIndex.header());
+                lines.forEach(line -> versions.append(line.join()).append('\n'));
+                return this.save(CompactIndex.VERSIONS, versions.toString());
+            }
+        ).thenCompose(
+            none -> {
+                final StringBuilder names = new StringBuilder(CompactIndex.SEPARATOR);
+                byname.keySet().forEach(name -> names.append(name).append('\n'));
+                return this.save(CompactIndex.NAMES, names.toString());
+            }
+        ).thenApply(none -> null);
+    }
+
+    /**
+     * Remove gem version from compact index.
+     * @param tuple Gem name tuple
+     * @return Completion action
+     */
+    public CompletionStage<Void> remove(final NameTuple tuple) {
+        final CompletionStage<Void> res;
+        if (GemKeys.valid(tuple)) {
+            res = this.drop(tuple);
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Remove gem version with valid name tuple from compact index.
+     * @param tuple Gem name tuple
+     * @return Completion action
+     */
+    private CompletionStage<Void> drop(final NameTuple tuple) {
+        final Key key = GemKeys.info(tuple.name());
+        final String version = CompactIndex.version(tuple);
+        return this.text(key).thenCompose(
+            existing -> {
+                final StringBuilder info = new StringBuilder();
+                boolean found = false;
+                for (final String line : existing.orElse("").split("\n")) {
+                    if (version.equals(line.split(" ", 2)[0])) {
+                        found = true;
+                    } else if (!line.isEmpty()) {
+                        info.append(line).append('\n');
+                    }
+                }
+                final CompletableFuture<Void> res;
+                if (found) {
+                    res = this.save(key, info.toString()).thenCompose(
+                        md5 -> this.versions(
+                            Collections.singletonList(
+                                String.format("%s -%s %s", tuple.name(), version, md5)
+                            )
+                        )
+                    );
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Append new versions of gem to its info file.
+     * @param name Gem name
+     * @param gems Gem specs with checksums
+     * @return Future with versions file line, empty if all versions were indexed before
+     */
+    private CompletableFuture<Optional<String>> append(final String name,
+        final Map<GemSpec, String> gems) {
+        final Key key = GemKeys.info(name);
+        return this.text(key).thenCompose(
+            existing -> {
+                final String text = existing.orElse(CompactIndex.SEPARATOR);
+                final Set<String> indexed = Arrays.stream(text.split("\n"))
+                    .map(line -> line.split(" ", 2)[0])
+                    .collect(Collectors.toSet());
+                final StringBuilder info = new StringBuilder(text);
+                final List<String> versions = new ArrayList<>(gems.size());
+                gems.forEach(
+                    (spec, sha) -> {
+                        final String version = CompactIndex.version(spec.tuple());
+                        if (indexed.add(version)) {
+                            versions.add(version);
+                            info.append(CompactIndex.line(spec, sha)).append('\n');
+                        }
+                    }
+                );
+                final CompletableFuture<Optional<String>> res;
+                if (versions.isEmpty()) {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                } else {
+                    res = this.save(key, info.toString()).thenApply(
+                        md5 -> Optional.of(
+                            String.format("%s %s %s", name, String.join(",", versions), md5)
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Append lines to versions file.
+     * @param lines Lines to append
+     * @return Completion action
+     */
+    private CompletableFuture<Void> versions(final List<String> lines) {
+        final CompletableFuture<Void> res;
+        if (lines.isEmpty()) {
+            res = CompletableFuture.allOf();
+        } else {
+            res = this.text(CompactIndex.VERSIONS).thenCompose(
+                existing -> {
+                    final StringBuilder text = new StringBuilder(
+                        existing.orElseGet(CompactIndex::header)
+                    );
+                    lines.forEach(line -> text.append(line).append('\n'));
+                    return this.storage.save(
+                        CompactIndex.VERSIONS,
+                        new Content.From(text.toString().getBytes(StandardCharsets.UTF_8))
+                    );
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Add gem names to names file if they are not there.
+     * @param added Names of added gems
+     * @return Completion action
+     */
+    private CompletableFuture<Void> names(final Collection<String> added) {
+        return this.text(CompactIndex.NAMES).thenCompose(
+            existing -> {
+                final Set<String> names = new TreeSet<>();
+                existing.ifPresent(
+                    text -> Arrays.stream(text.split("\n"))
+                        .filter(line -> !line.isEmpty() && !"---".equals(line))
+                        .forEach(names::add)
+                );
+                final CompletableFuture<Void> res;
+                if (existing.isPresent() && names.containsAll(added)) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    names.addAll(added);
+                    final StringBuilder text = new StringBuilder(CompactIndex.SEPARATOR);
+                    names.forEach(name -> text.append(name).append('\n'));
+                    res = this.storage.save(
+                        CompactIndex.NAMES,
+                        new Content.From(text.toString().getBytes(StandardCharsets.UTF_8))
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Save text file to storage.
+     * @param key Storage key
+     * @param text File text
+     * @return Future with hex MD5 checksum of the file
+     */
+    private CompletableFuture<String> save(final Key key, final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return this.storage.save(key, new Content.From(bytes)).thenCompose(
+            none -> new ContentDigest(new Content.From(bytes), Digests.MD5).hex()
+        ).toCompletableFuture();
+    }
+
+    /**
+     * Read text file from storage.
+     * @param key Storage key
+     * @return Future with text, empty if file doesn't exist
+     */
+    private CompletableFuture<Optional<String>> text(final Key key) {
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<String>> res;
+                if (exists) {
+                    res = this.storage.value(key).thenCompose(
+                        content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                    ).thenApply(Optional::of);
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Gems with valid name tuples grouped by name.
+     * @param gems Gem specs with checksums
+     * @return Gem specs with checksums by gem names in alphabetical order
+     */
+    private static Map<String, Map<GemSpec, String>> byName(final Map<GemSpec, String> gems) {
+        final Map<String, Map<GemSpec, String>> res = new TreeMap<>();
+        gems.forEach(
+            (spec, sha) -> {
+                if (GemKeys.valid(spec.tuple())) {
+                    res.computeIfAbsent(spec.name(), name -> new LinkedHashMap<>())
+                        .put(spec, sha);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Header of new {@code versions} file.
+     * @return Header with creation time
+     */
+    private static String header() {
+        return String.format(
+            "created_at: %s\n%s",
+            Instant.now().truncatedTo(ChronoUnit.SECONDS), CompactIndex.SEPARATOR
+        );
+    }
+
+    /**
+     * Version of gem in compact index format: version with platform suffix
+     * for non-ruby platforms.
+     * @param tuple Gem name tuple
+     * @return Version string
+     */
+    private static String version(final NameTuple tuple) {
+        final String res;
+        if (NameTuple.RUBY.equals(tuple.platform())) {
+            res = tuple.version().toString();
+        } else {
+            res = String.format("%s-%s", tuple.version(), tuple.platform());
+        }
+        return res;
+    }
+
+    /**
+     * Info file line of gem.
+     * @param spec Gem spec
+     * @param sha SHA-256 checksum of gem package
+     * @return Info line
+     */
+    private static String line(final GemSpec spec, final String sha) {
+        final StringBuilder line = new StringBuilder(CompactIndex.version(spec.tuple()))
+            .append(' ')
+            .append(
+                spec.runtimeDependencies().stream().map(
+                    dep -> String.format(
+                        "%s:%s", dep.name(), String.join("&", dep.requirements())
+                    )
+                ).collect(Collectors.joining(","))
+            ).append("|checksum:").append(sha);
+        CompactIndex.requirement(line, "ruby", spec.requiredRubyVersion());
+        CompactIndex.requirement(line, "rubygems", spec.requiredRubygemsVersion());
+        return line.toString();
+    }
+
+    /**
+     * Append requirement to info line if it's not default.
+     * @param line Info line
+     * @param name Requirement name
+     * @param requirements Requirements
+     */
+    private static void requirement(final StringBuilder line, final String name,
+        final List<String> requirements) {
+        if (!requirements.isEmpty() && !requirements.equals(CompactIndex.ANY)) {
+            line.append(',').append(name).append(':').append(String.join("&", requirements));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed index data: gzip for {@code *.gz} and zlib deflate
+ * for {@code *.rz} index files.
+ * @since 1.0
+ */
+public final class Compressed {
+
+    /**
+     * Data to compress.
+     */
+    private final byte[] data;
+
+    /**
+     * New compressed data.
+     * @param data Data to compress
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public Compressed(final byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Gzip data.
+     * @return Compressed bytes
+     */
+    public byte[] gzip() {
+        final ByteArrayOutputStream res = this.buffer();
+        try (OutputStream out = new GZIPOutputStream(res)) {
+            out.write(this.data);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Deflate data with zlib format.
+     * @return Compressed bytes
+     */
+    public byte[] deflate() {
+        final ByteArrayOutputStream res = this.buffer();
+        try (OutputStream out = new DeflaterOutputStream(res)) {
+            out.write(this.data);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Output buffer for compressed data.
+     * @return Buffer
+     */
+    private ByteArrayOutputStream buffer() {
+        return new ByteArrayOutputStream(this.data.length / 2 + 32);
+    }
+}
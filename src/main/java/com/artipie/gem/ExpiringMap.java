@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map with expiring entries.
+ * <p>
+ * Entries are evicted in least recently used order when map size exceeds
+ * its limit, and expire after time-to-live since they were written.
+ * All operations are synchronized, so map is safe for concurrent use.
+ * </p>
+ * @param <K> Key type
+ * @param <V> Value type
+ * @since 1.0
+ */
+final class ExpiringMap<K, V> {
+
+    /**
+     * Entries in access order.
+     */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Time-to-live in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * New map.
+     * @param size Max number of entries
+     * @param ttl Time-to-live of entries
+     */
+    @SuppressWarnings("serial")
+    ExpiringMap(final long size, final Duration ttl) {
+        this.ttl = ttl.toNanos();
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Get value.
+     * @param key Key
+     * @return Value if present and not expired
+     */
+    public synchronized Optional<V> get(final K key) {
+        return Optional.ofNullable(this.alive(key)).map(entry -> entry.value);
+    }
+
+    /**
+     * Get value or compute and put it if absent.
+     * @param key Key
+     * @param func Value function for missing key
+     * @return Present or computed value
+     */
+    public synchronized V computeIfAbsent(final K key, final Function<K, V> func) {
+        Entry<V> entry = this.alive(key);
+        if (entry == null) {
+            entry = new Entry<>(func.apply(key), System.nanoTime());
+            this.entries.put(key, entry);
+        }
+        return entry.value;
+    }
+
+    /**
+     * Put value.
+     * @param key Key
+     * @param value Value
+     */
+    public synchronized void put(final K key, final V value) {
+        this.entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Remove value.
+     * @param key Key
+     */
+    public synchronized void remove(final K key) {
+        this.entries.remove(key);
+    }
+
+    /**
+     * Remove value if it's mapped to the key.
+     * @param key Key
+     * @param value Expected value
+     */
+    public synchronized void remove(final K key, final V value) {
+        final Entry<V> entry = this.entries.get(key);
+        if (entry != null && entry.value.equals(value)) {
+            this.entries.remove(key);
+        }
+    }
+
+    /**
+     * Remove values matching predicate.
+     * @param predicate Values predicate
+     */
+    public synchronized void removeIf(final Predicate<V> predicate) {
+        final Iterator<Entry<V>> iter = this.entries.values().iterator();
+        while (iter.hasNext()) {
+            if (predicate.test(iter.next().value)) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove all values.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Entry which is not expired, expired entry is removed.
+     * @param key Key
+     * @return Entry or null
+     */
+    private Entry<V> alive(final K key) {
+        Entry<V> res = this.entries.get(key);
+        if (res != null && System.nanoTime() - res.written >= this.ttl) {
+            this.entries.remove(key);
+            res = null;
+        }
+        return res;
+    }
+
+    /**
+     * Map entry with write time.
+     * @param <V> Value type
+     * @since 1.0
+     */
+    private static final class Entry<V> {
+
+        /**
+         * Value.
+         */
+        private final V value;
+
+        /**
+         * Write time in nanoseconds.
+         */
+        private final long written;
+
+        /**
+         * Ctor.
+         * @param value Value
+         * @param written Write time in nanoseconds
+         */
+        Entry(final V value, final long written) {
+            this.value = value;
+            this.written = written;
+        }
+    }
+}
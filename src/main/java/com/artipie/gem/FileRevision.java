@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Revision of repository file: strong entity tag and modification time,
+ * used to answer conditional requests without reading the file.
+ * @since 1.0
+ */
+public final class FileRevision {
+
+    /**
+     * File content hash.
+     */
+    private final String hash;
+
+    /**
+     * Modification time.
+     */
+    private final Optional<Instant> time;
+
+    /**
+     * New revision without modification time.
+     * @param hash File content hash
+     */
+    public FileRevision(final String hash) {
+        this(hash, Optional.empty());
+    }
+
+    /**
+     * New revision.
+     * @param hash File content hash
+     * @param time Modification time
+     */
+    public FileRevision(final String hash, final Instant time) {
+        this(hash, Optional.of(time));
+    }
+
+    /**
+     * Primary ctor.
+     * @param hash File content hash
+     * @param time Modification time
+     */
+    private FileRevision(final String hash, final Optional<Instant> time) {
+        this.hash = hash;
+        this.time = time.map(val -> val.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * File content hash.
+     * @return Hex hash
+     */
+    public String hash() {
+        return this.hash;
+    }
+
+    /**
+     * Strong entity tag.
+     * @return Quoted tag, e.g. {@code "3b2c..."}
+     */
+    public String etag() {
+        return String.format("\"%s\"", this.hash);
+    }
+
+    /**
+     * Modification time, truncated to seconds.
+     * @return Time if known
+     */
+    public Optional<Instant> modified() {
+        return this.time;
+    }
+}
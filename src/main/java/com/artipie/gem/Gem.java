@@ -24,33 +24,36 @@
 package com.artipie.gem;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.Copy;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
-import com.artipie.asto.fs.FileStorage;
 import com.artipie.gem.ruby.RubyGemIndex;
-import com.artipie.gem.ruby.RubyGemMeta;
-import com.artipie.gem.ruby.SharedRuntime;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import com.artipie.gem.ruby.RuntimePool;
+import com.artipie.gem.spec.GemDependency;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import com.jcabi.log.Logger;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
-import java.util.function.BiFunction;
-import java.util.function.Predicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import org.apache.commons.io.FileUtils;
 
 /**
  * An SDK, which servers gem packages.
  * <p>
- * Performes gem index update using specified indexer implementation.
+ * Updates specs index incrementally on each gem push and falls back
+ * to Ruby indexer if stored index can't be updated.
  * </p>
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
@@ -60,142 +63,693 @@ public final class Gem {
     /**
      * Read only set of metadata item names.
      */
-    private static final Set<Key> META_NAMES = Collections.unmodifiableSet(
+    static final Set<Key> META_NAMES = Collections.unmodifiableSet(
         Stream.of(
             "latest_specs.4.8", "latest_specs.4.8.gz", "prerelease_specs.4.8",
             "prerelease_specs.4.8.gz", "specs.4.8", "specs.4.8.gz"
         ).map(Key.From::new).collect(Collectors.toSet())
     );
 
+    /**
+     * Default size of gem info cache.
+     */
+    private static final long CACHE_SIZE = 1000L;
+
+    /**
+     * Max number of gems in one batch of journal recovery.
+     */
+    private static final int RECOVERY_BATCH = 100;
+
+    /**
+     * Age of staged upload, after which it's considered abandoned.
+     */
+    private static final Duration ABANDONED = Duration.ofHours(1L);
+
     /**
      * Gem repository storage.
      */
     private final Storage storage;
 
     /**
-     * Shared ruby runtime.
+     * Ruby runtimes pool.
+     */
+    private final RuntimePool ruby;
+
+    /**
+     * Index lock.
+     */
+    private final IndexLock lock;
+
+    /**
+     * Catalog of repository gems.
+     */
+    private final GemCatalog catalog;
+
+    /**
+     * Gem info cache by gem name.
+     */
+    private final AsyncCache<String, Map<String, String>> infos;
+
+    /**
+     * Indexing queue.
+     */
+    private final IndexQueue queue;
+
+    /**
+     * Statuses of pushed gems.
+     */
+    private final Pushes pushes;
+
+    /**
+     * Journal of pending index operations.
+     */
+    private final IndexJournal journal;
+
+    /**
+     * Hot cache of specs index files.
+     */
+    private final SpecsCache specs;
+
+    /**
+     * Revisions of gem packages.
      */
-    private final SharedRuntime shared;
+    private final AsyncCache<Key, FileRevision> revisions;
+
+    /**
+     * Local working copy of index files for Ruby indexer.
+     */
+    private final WorkingCopy work;
+
+    /**
+     * Gem checksums.
+     */
+    private final Checksums checksums;
+
+    /**
+     * Index generation marker.
+     */
+    private final IndexGeneration generation;
 
     /**
      * New Gem SDK with default indexer.
      * @param storage Repository storage.
      */
     public Gem(final Storage storage) {
+        this(storage, RuntimePool.SHARED);
+    }
+
+    /**
+     * New Gem SDK with default indexer.
+     * @param storage Repository storage.
+     * @param ruby Ruby runtimes pool.
+     */
+    public Gem(final Storage storage, final RuntimePool ruby) {
+        this(storage, ruby, new AsyncCache<>(Gem.CACHE_SIZE, Duration.ofMinutes(5L)));
+    }
+
+    /**
+     * New Gem SDK with default indexer.
+     * @param storage Repository storage.
+     * @param ruby Ruby runtimes pool.
+     * @param infos Gem info cache by gem name.
+     */
+    public Gem(final Storage storage, final RuntimePool ruby,
+        final AsyncCache<String, Map<String, String>> infos) {
         this.storage = storage;
-        this.shared = new SharedRuntime();
+        this.ruby = ruby;
+        this.infos = infos;
+        this.lock = new IndexLock(storage);
+        this.generation = new IndexGeneration(storage);
+        this.catalog = new GemCatalog(storage, this.generation);
+        this.queue = new IndexQueue(this::index);
+        this.pushes = new Pushes();
+        this.journal = new IndexJournal(storage);
+        this.specs = new SpecsCache(storage, Gem.META_NAMES, this.generation);
+        this.revisions = new AsyncCache<>(Gem.CACHE_SIZE, Duration.ofHours(1L));
+        this.work = new WorkingCopy(storage, Gem.META_NAMES, this.generation);
+        this.checksums = new Checksums(storage);
+    }
+
+    /**
+     * Publish staged gem under its canonical key, unless the gem already exists.
+     * <p>
+     * Existence check, checksum, journal entry and move of staged gem are
+     * performed under index lock, so concurrent pushes of the same gem version
+     * never overwrite each other. Staged gem is left in place if the gem
+     * exists. Published gem is marked as queued, see {@link #status(Key)}, and
+     * should be indexed with {@link #update(Key)}; its journal entry is removed
+     * when the gem is committed to index, gems left in journal after process
+     * crash are indexed by {@link #recover()}.
+     * </p>
+     * @param staged Staged gem key
+     * @param gem Canonical gem key
+     * @param sha Hex SHA-256 checksum of staged gem
+     * @return Future with revision of existing gem, empty if staged gem was published
+     */
+    public CompletionStage<Optional<FileRevision>> publish(final Key staged, final Key gem,
+        final String sha) {
+        return this.lock.perform(
+            sto -> this.revision(gem).thenCompose(
+                rev -> {
+                    final CompletionStage<Optional<FileRevision>> res;
+                    if (rev.isPresent()) {
+                        res = CompletableFuture.completedFuture(rev);
+                    } else {
+                        res = this.checksums.save(gem, sha)
+                            .thenCompose(none -> this.journal.add(gem))
+                            .thenCompose(none -> this.storage.move(staged, gem))
+                            .thenApply(
+                                none -> {
+                                    this.pushes.update(
+                                        Collections.singleton(gem), Pushes.Status.QUEUED
+                                    );
+                                    return Optional.empty();
+                                }
+                            );
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Index gems, left in journal by previous process, in batches.
+     * Journal entries of gems, which were never saved, are dropped.
+     * Staged uploads, abandoned by crashed process, are removed: uploads
+     * started more than an hour ago and uploads without start time in
+     * staging key, see {@link GemKeys#upload(Instant)}. Recovery is not
+     * started by the SDK itself: it should be called once by the host
+     * application on start.
+     * @return Future with number of recovered gems
+     */
+    public CompletionStage<Integer> recover() {
+        return this.abandoned().thenCompose(none -> this.journal.pending()).thenCompose(
+            keys -> {
+                final List<CompletableFuture<Boolean>> saved = keys.stream().map(
+                    key -> this.storage.exists(key).toCompletableFuture()
+                ).collect(Collectors.toList());
+                return CompletableFuture.allOf(saved.toArray(new CompletableFuture<?>[0]))
+                    .thenCompose(
+                        none -> {
+                            final List<Key> gems = new ArrayList<>(keys.size());
+                            final List<Key> lost = new ArrayList<>(0);
+                            for (int idx = 0; idx < keys.size(); ++idx) {
+                                if (saved.get(idx).join()) {
+                                    gems.add(keys.get(idx));
+                                } else {
+                                    lost.add(keys.get(idx));
+                                }
+                            }
+                            CompletionStage<Void> res = this.journal.remove(lost);
+                            for (int from = 0; from < gems.size(); from += Gem.RECOVERY_BATCH) {
+                                final List<Key> batch = gems.subList(
+                                    from, Math.min(from + Gem.RECOVERY_BATCH, gems.size())
+                                );
+                                res = res.thenCompose(ignored -> this.index(batch));
+                            }
+                            return res.thenApply(ignored -> gems.size());
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Check whether gem version is indexed or is being indexed by this SDK.
+     * @param tuple Gem name tuple
+     * @return Future with true if gem version is indexed or queued for indexing
+     */
+    public CompletionStage<Boolean> indexed(final NameTuple tuple) {
+        final boolean queued = this.pushes.status(GemKeys.gem(tuple))
+            .map(status -> status != Pushes.Status.FAILED)
+            .orElse(false);
+        final CompletionStage<Boolean> res;
+        if (queued) {
+            res = CompletableFuture.completedFuture(true);
+        } else {
+            res = this.catalog.contains(tuple);
+        }
+        return res;
     }
 
     /**
      * Batch update Ruby gems for repository.
-     *
+     * <p>
+     * Gems pushed at the same time are coalesced into one index update,
+     * the future is completed when the batch with this gem is committed.
+     * </p>
      * @param gem Ruby gem for indexing
      * @return Completable action
      */
     public CompletionStage<Void> update(final Key gem) {
-        return newTempDir().thenCompose(
-            tmp -> new Copy(this.storage, key -> META_NAMES.contains(key) || key.equals(gem))
-                .copy(new FileStorage(tmp))
-                .thenApply(ignore -> tmp)
+        this.pushes.update(Collections.singleton(gem), Pushes.Status.QUEUED);
+        return this.queue.add(gem);
+    }
+
+    /**
+     * Rebuild specs index from all gems of the repository.
+     * <p>
+     * Gem specs and checksums are read in parallel without index lock, see
+     * {@link GemScan}, quick specs are written as gems are read; checksums of
+     * gems without stored checksum are computed and stored at this step, so
+     * large packages are not hashed under the lock. Then, under index lock, gems
+     * added or removed during the scan are taken into account and specs files
+     * are replaced. The new index becomes visible to clients at once when
+     * specs files cache is refreshed. Catalog of gems is replaced with scanned
+     * gems, so removed gems are dropped from it. Finally, compact index is
+     * rebuilt from scanned gems and their checksums. Reindex fails without
+     * changing the index if checksum of any scanned gem can't be read.
+     * </p>
+     * @return Future with number of indexed gems
+     */
+    public CompletionStage<Integer> reindex() {
+        final GemScan scan = new GemScan(this.storage);
+        return this.gems().thenCompose(scan::specs).thenCompose(
+            specs -> scan.checksums(specs.keySet()).thenApply(
+                sums -> new GemScan.Result(specs, sums)
+            )
         ).thenCompose(
-            tmp -> this.shared.apply(RubyGemIndex::new)
-                .thenAccept(index -> index.update(tmp))
-                .thenCompose(none -> new Copy(new FileStorage(tmp)).copy(this.storage))
-                .handle(removeTempDir(tmp))
+            scanned -> this.lock.perform(
+                sto -> this.gems().thenCompose(
+                    current -> {
+                        final List<Key> added = current.stream()
+                            .filter(key -> !scanned.specs().containsKey(key))
+                            .collect(Collectors.toList());
+                        return scan.specs(added).thenCompose(
+                            specs -> scan.checksums(specs.keySet()).thenApply(
+                                sums -> scanned.merge(new GemScan.Result(specs, sums))
+                                    .retain(current)
+                            )
+                        );
+                    }
+                ).thenCompose(this::replace)
+            )
         );
     }
 
     /**
-     * Gem info data.
-     * @param gem Gem name
-     * @param fmt Info format
-     * @param <T> Format type
-     * @return Future
+     * Replace specs and compact indexes with scanned gems.
+     * @param scanned Scanned gems
+     * @return Future with number of indexed gems
      */
-    public <T> CompletionStage<T> info(final String gem, final GemMeta.InfoFormat<T> fmt) {
-        return newTempDir().thenCompose(
-            tmp -> new Copy(this.storage, new IsGemKey(gem))
-                .copy(new FileStorage(tmp))
-                .thenApply(ignore -> tmp)
-        ).thenCompose(
-            tmp -> this.shared.apply(RubyGemMeta::new)
-                .thenCompose(
-                    info -> new FileStorage(tmp).list(Key.ROOT).thenApply(
-                        items -> items.stream().findFirst()
-                            .map(first -> Paths.get(tmp.toString(), first.string()))
-                            .map(path -> info.info(path, fmt))
-                            .orElseThrow(() -> new ArtipieIOException("gem not found"))
-                    )
-                ).handle(removeTempDir(tmp))
+    private CompletionStage<Integer> replace(final GemScan.Result scanned) {
+        final Map<Key, GemSpec> all = scanned.specs();
+        final Map<GemSpec, String> compact = new LinkedHashMap<>();
+        final List<String> missing = new ArrayList<>(0);
+        all.forEach(
+            (key, spec) -> {
+                final String sha = scanned.checksums().get(key);
+                if (sha == null) {
+                    missing.add(key.string());
+                } else {
+                    compact.put(spec, sha);
+                }
+            }
         );
+        final CompletionStage<Integer> res;
+        if (missing.isEmpty()) {
+            res = new StorageIndex(this.storage).replace(
+                all.values().stream().map(GemSpec::tuple).collect(Collectors.toSet())
+            ).thenCompose(
+                none -> this.work.advance()
+            ).thenCompose(
+                none -> this.generation.current()
+            ).thenCompose(
+                after -> {
+                    this.catalog.replace(all, after);
+                    return this.specs.refresh();
+                }
+            ).thenCompose(
+                none -> new CompactIndex(this.storage).replace(compact)
+            ).thenApply(
+                none -> {
+                    this.infos.invalidateAll();
+                    return all.size();
+                }
+            );
+        } else {
+            final CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                new ArtipieIOException(
+                    String.format("Failed to read checksums of gems: %s", missing)
+                )
+            );
+            res = failed;
+        }
+        return res;
     }
 
     /**
-     * Create new temp dir asynchronously.
-     * @return Future
+     * Yank gem version: remove it from specs and compact indexes under index
+     * lock and delete gem package.
+     * <p>
+     * Index files are updated in place, {@code latest_specs} entries are
+     * recomputed only for the yanked gem name.
+     * </p>
+     * @param tuple Gem name tuple
+     * @return Future with true if gem was yanked, false if it was not indexed
      */
-    private static CompletionStage<Path> newTempDir() {
-        return CompletableFuture.supplyAsync(
-            new UncheckedSupplier<>(
-                () -> Files.createTempDirectory(Gem.class.getSimpleName())
-            )
+    public CompletionStage<Boolean> yank(final NameTuple tuple) {
+        return this.lock.perform(
+            sto -> this.generation.fresh().thenCompose(before -> this.remove(tuple, before))
         );
     }
 
     /**
-     * Handle async result.
-     * @param tmpdir Path directory to remove
-     * @param <T> Result type
-     * @return Function handler
+     * Status of gem, pushed with {@link #update(Key)}.
+     * @param gem Gem key
+     * @return Status if push is tracked
+     */
+    public Optional<Pushes.Status> status(final Key gem) {
+        return this.pushes.status(gem);
+    }
+
+    /**
+     * Update index with batch of gems under index lock.
+     * @param gems Ruby gems for indexing
+     * @return Completable action
      */
-    private static <T> BiFunction<T, Throwable, T> removeTempDir(
-        final Path tmpdir) {
-        return (res, err) -> {
-            try {
-                if (tmpdir != null) {
-                    FileUtils.deleteDirectory(new File(tmpdir.toString()));
+    private CompletionStage<Void> index(final Collection<Key> gems) {
+        this.pushes.update(gems, Pushes.Status.INDEXING);
+        return this.lock.perform(sto -> this.append(gems)).thenCompose(
+            none -> this.journal.remove(gems)
+        ).whenComplete(
+            (none, err) -> {
+                if (err == null) {
+                    this.pushes.update(gems, Pushes.Status.PUBLISHED);
+                } else {
+                    this.pushes.update(gems, Pushes.Status.FAILED);
                 }
-            } catch (final IOException iox) {
-                throw new ArtipieIOException(iox);
             }
-            if (err != null) {
-                throw new CompletionException(err);
+        );
+    }
+
+    /**
+     * Append batch of gems to index.
+     * <p>
+     * Specs index is updated incrementally with gem name tuples. If stored index
+     * can't be updated incrementally, it's regenerated with Ruby indexer from
+     * all gems of repository. If regeneration fails too, the batch fails and
+     * its gems are left in journal.
+     * Compact index is updated after specs index, then specs files cache is refreshed.
+     * </p>
+     * @param gems Ruby gems for indexing
+     * @return Completable action
+     */
+    private CompletionStage<Void> append(final Collection<Key> gems) {
+        final List<CompletableFuture<GemSpec>> specs = gems.stream().map(
+            gem -> this.storage.value(gem)
+                .thenCompose(content -> new GemPackage(content).spec())
+                .toCompletableFuture()
+        ).collect(Collectors.toList());
+        final List<CompletableFuture<String>> sums = gems.stream().map(
+            gem -> this.checksums.get(gem).toCompletableFuture()
+        ).collect(Collectors.toList());
+        final CompletableFuture<String> before = this.generation.fresh().toCompletableFuture();
+        return CompletableFuture.allOf(specs.toArray(new CompletableFuture<?>[0])).thenCompose(
+            none -> before
+        ).thenCompose(
+            none -> new StorageIndex(this.storage).add(
+                specs.stream().map(CompletableFuture::join).collect(Collectors.toList())
+            )
+        ).handle(
+            (none, err) -> {
+                final CompletionStage<Void> res;
+                if (err == null) {
+                    res = this.work.advance();
+                } else {
+                    Logger.warn(
+                        this, "Failed to update index incrementally for %s: %[exception]s",
+                        gems, err
+                    );
+                    res = this.regenerate();
+                }
+                return res;
             }
-            return res;
-        };
+        ).thenCompose(Function.identity()).thenCompose(
+            none -> this.follow(before.join())
+        ).thenCompose(
+            none -> CompletableFuture.allOf(sums.toArray(new CompletableFuture<?>[0]))
+        ).thenCompose(
+            none -> {
+                final Map<GemSpec, String> compact = new LinkedHashMap<>();
+                final List<Key> keys = new ArrayList<>(gems);
+                final Instant now = Instant.now();
+                for (int idx = 0; idx < specs.size(); ++idx) {
+                    compact.put(specs.get(idx).join(), sums.get(idx).join());
+                    this.revisions.put(keys.get(idx), new FileRevision(sums.get(idx).join(), now));
+                }
+                return new CompactIndex(this.storage).add(compact);
+            }
+        ).thenCompose(
+            none -> this.specs.refresh()
+        ).thenRun(
+            () -> {
+                final List<Key> keys = new ArrayList<>(gems);
+                for (int idx = 0; idx < keys.size(); ++idx) {
+                    final GemSpec spec = specs.get(idx).join();
+                    this.catalog.add(keys.get(idx), spec);
+                    this.infos.invalidate(spec.name());
+                }
+            }
+        );
+    }
+
+    /**
+     * Remove gem version from index and storage.
+     * @param tuple Gem name tuple
+     * @param before Index generation before removal
+     * @return Future with true if gem was removed, false if it was not indexed
+     */
+    private CompletionStage<Boolean> remove(final NameTuple tuple, final String before) {
+        return new StorageIndex(this.storage).remove(tuple).thenCompose(
+            removed -> {
+                final CompletionStage<Boolean> res;
+                if (removed) {
+                    res = new CompactIndex(this.storage).remove(tuple)
+                        .thenCompose(none -> this.work.advance())
+                        .thenCompose(none -> this.follow(before))
+                        .thenCompose(none -> this.specs.refresh())
+                        .thenCompose(none -> this.catalog.remove(tuple))
+                        .thenCompose(
+                            key -> key.map(
+                                gem -> {
+                                    this.revisions.invalidate(gem);
+                                    return this.storage.delete(gem)
+                                        .thenCompose(none -> this.checksums.remove(gem));
+                                }
+                            ).orElseGet(() -> CompletableFuture.allOf())
+                        ).thenApply(
+                            none -> {
+                                this.infos.invalidate(tuple.name());
+                                return true;
+                            }
+                        );
+                } else {
+                    res = CompletableFuture.completedFuture(false);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Remove abandoned staged uploads.
+     * @return Completable action
+     */
+    private CompletionStage<Void> abandoned() {
+        final Instant before = Instant.now().minus(Gem.ABANDONED);
+        return this.storage.list(GemKeys.UPLOADS).thenCompose(
+            keys -> CompletableFuture.allOf(
+                keys.stream().filter(
+                    key -> GemKeys.uploaded(key).map(time -> time.isBefore(before)).orElse(true)
+                ).map(
+                    key -> this.storage.delete(key).exceptionally(
+                        err -> {
+                            Logger.warn(
+                                this, "Failed to remove abandoned upload %s: %[exception]s",
+                                key.string(), err
+                            );
+                            return null;
+                        }
+                    )
+                ).toArray(CompletableFuture<?>[]::new)
+            )
+        );
     }
 
     /**
-     * Predicate to find gem key by name.
-     * @since 1.0
+     * Move catalog to index generation, committed by this SDK.
+     * @param before Index generation the commit was based on
+     * @return Completable action
      */
-    private static final class IsGemKey implements Predicate<Key>  {
+    private CompletionStage<Void> follow(final String before) {
+        return this.generation.current().thenAccept(
+            after -> this.catalog.advance(before, after)
+        );
+    }
 
-        /**
-         * Gem name.
-         */
-        private final String name;
+    /**
+     * Keys of all gems in storage.
+     * @return Future with gem keys
+     */
+    private CompletionStage<Set<Key>> gems() {
+        return this.storage.list(Key.ROOT).thenApply(
+            keys -> keys.stream()
+                .filter(key -> key.string().endsWith(".gem"))
+                .collect(Collectors.toSet())
+        );
+    }
 
-        /**
-         * New predicate.
-         * @param name Gem name
-         */
-        IsGemKey(final String name) {
-            this.name = name;
+    /**
+     * Specs index file, served from in-memory cache.
+     * <p>
+     * Cache is refreshed when new index is committed by this SDK, and
+     * revalidated against index generation marker, when index is committed
+     * by other node.
+     * </p>
+     * @param name Specs file name, e.g. {@code specs.4.8.gz}
+     * @return Future with read-only file buffer, empty if file doesn't exist
+     */
+    public CompletionStage<Optional<ByteBuffer>> specs(final Key name) {
+        final CompletionStage<Optional<ByteBuffer>> res;
+        if (Gem.META_NAMES.contains(name)) {
+            res = this.specs.get(name);
+        } else {
+            res = CompletableFuture.completedFuture(Optional.empty());
         }
+        return res;
+    }
 
-        @Override
-        public boolean test(final Key key) {
-            final String str = key.string();
-            final int idx = str.lastIndexOf(this.name);
-            boolean matches = false;
-            if (idx >= 0) {
-                final String tail = str.substring(idx + this.name.length());
-                if (tail.isEmpty() || tail.matches("^[0-9a-zA-Z\\-\\.]+$")) {
-                    matches = true;
+    /**
+     * Revision of repository file for conditional requests.
+     * <p>
+     * Revisions of specs files are computed when index is committed,
+     * revisions of gem packages are read from stored gem checksums, see
+     * {@link Checksums}.
+     * </p>
+     * @param name File name
+     * @return Future with revision, empty if file doesn't exist
+     *  or it's not a specs file or gem package
+     */
+    public CompletionStage<Optional<FileRevision>> revision(final Key name) {
+        final CompletionStage<Optional<FileRevision>> res;
+        if (Gem.META_NAMES.contains(name)) {
+            res = this.specs.revision(name);
+        } else if (name.string().endsWith(".gem")) {
+            res = this.storage.exists(name).thenCompose(
+                exists -> {
+                    final CompletionStage<Optional<FileRevision>> rev;
+                    if (exists) {
+                        rev = this.revisions.get(
+                            name, key -> this.checksums.get(key).thenApply(FileRevision::new)
+                        ).thenApply(Optional::of);
+                    } else {
+                        rev = CompletableFuture.completedFuture(Optional.empty());
+                    }
+                    return rev;
                 }
-            }
-            return matches;
+            );
+        } else {
+            res = CompletableFuture.completedFuture(Optional.empty());
         }
+        return res;
+    }
+
+    /**
+     * Runtime dependencies of all versions of gems.
+     * @param gems Gem names
+     * @return Future with dependencies of each gem version
+     */
+    public CompletionStage<Map<NameTuple, List<GemDependency>>> dependencies(
+        final Collection<String> gems) {
+        return this.catalog.dependencies(gems);
+    }
+
+    /**
+     * Gem info data.
+     * <p>
+     * Info of the latest gem version is returned. Gem key is resolved with
+     * repository catalog, gem specification is streamed from storage, without
+     * copying the package to local file system, {@code sha} field is a stored
+     * SHA-256 checksum of the package. Info is cached by gem name until
+     * new version of the gem is indexed.
+     * </p>
+     * @param gem Gem name
+     * @param fmt Info format
+     * @param <T> Format type
+     * @return Future
+     */
+    public <T> CompletionStage<T> info(final String gem, final GemMeta.InfoFormat<T> fmt) {
+        return this.infos.get(
+            gem,
+            name -> this.catalog.latest(name).thenApply(
+                key -> key.orElseThrow(() -> new ArtipieIOException("gem not found"))
+            ).thenCompose(
+                key -> this.storage.value(key)
+                    .thenCompose(content -> new GemPackage(content).spec())
+                    .thenCombine(
+                        this.checksums.get(key),
+                        (spec, sha) -> {
+                            final Map<String, String> info = spec.info();
+                            info.put("sha", sha);
+                            return Collections.unmodifiableMap(info);
+                        }
+                    )
+            )
+        ).thenApply(fmt::print);
+    }
+
+    /**
+     * Regenerate index with Ruby indexer in local working copy.
+     * <p>
+     * Ruby indexer builds specs files only from gems of working copy, so all
+     * gems of {@code gems} directory are copied to working copy, not only the
+     * batch which failed incremental update; otherwise regenerated index would
+     * lose all other gems.
+     * </p>
+     * @return Completable action
+     */
+    private CompletionStage<Void> regenerate() {
+        return this.storage.list(GemKeys.GEMS).thenApply(
+            keys -> keys.stream().filter(
+                key -> key.string().endsWith(".gem")
+                    && key.parent().map(Key::string)
+                        .equals(Optional.of(GemKeys.GEMS.string()))
+            ).collect(Collectors.toList())
+        ).thenCompose(this::regenerate);
+    }
+
+    /**
+     * Regenerate index from gems with Ruby indexer in local working copy.
+     * @param gems All gems of repository
+     * @return Completable action
+     */
+    private CompletionStage<Void> regenerate(final Collection<Key> gems) {
+        return this.work.checkout(gems).thenCompose(
+            dir -> this.ruby.apply(
+                runtime -> {
+                    new RubyGemIndex(runtime).update(dir);
+                    return dir;
+                }
+            )
+        ).handle(
+            (dir, err) -> {
+                final CompletionStage<Void> res;
+                if (err == null) {
+                    res = this.work.commit(gems);
+                } else {
+                    res = this.work.discard(gems).thenCompose(
+                        none -> {
+                            final CompletableFuture<Void> failed = new CompletableFuture<>();
+                            failed.completeExceptionally(err);
+                            return failed;
+                        }
+                    );
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
     }
 }
@@ -0,0 +1,445 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.spec.GemDependency;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import com.jcabi.log.Logger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory catalog of repository gems: gem name to versions with
+ * storage keys and runtime dependencies.
+ * <p>
+ * Catalog is loaded from specs index on first request and then is updated
+ * with added gems, so gem keys and dependencies of any number of gems are
+ * resolved without listing storage. Gem versions are taken from specs index,
+ * their keys are canonical gem keys, see {@link GemKeys#gem(NameTuple)};
+ * runtime dependencies are read from gem package on first request. Catalog is
+ * bound to index generation, see {@link IndexGeneration}: when index is
+ * committed by other node, specs index is read again on next request, known
+ * versions are kept with their dependencies and only new versions are added.
+ * Index commits of this node move the catalog to new generation with
+ * {@link #advance(String, String)}.
+ * </p>
+ * @since 1.0
+ */
+public final class GemCatalog {
+
+    /**
+     * Order of gem versions to pick the latest one: by version, then ruby platform
+     * over others, then by platform name.
+     */
+    private static final Comparator<NameTuple> LATEST = Comparator
+        .comparing(NameTuple::version)
+        .thenComparing(tuple -> NameTuple.RUBY.equals(tuple.platform()))
+        .thenComparing(NameTuple::platform, Comparator.reverseOrder());
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index generation marker.
+     */
+    private final IndexGeneration generation;
+
+    /**
+     * Current catalog state.
+     */
+    private GemCatalog.State state;
+
+    /**
+     * New gem catalog.
+     * @param storage Repository storage
+     */
+    public GemCatalog(final Storage storage) {
+        this(storage, new IndexGeneration(storage));
+    }
+
+    /**
+     * New gem catalog.
+     * @param storage Repository storage
+     * @param generation Index generation marker
+     */
+    public GemCatalog(final Storage storage, final IndexGeneration generation) {
+        this.storage = storage;
+        this.generation = generation;
+        this.state = new GemCatalog.State(
+            Optional.empty(), new ConcurrentHashMap<>(), Optional.empty()
+        );
+    }
+
+    /**
+     * Add gem to catalog. If catalog is being loaded, gem is added
+     * to loaded catalog too.
+     * @param key Gem storage key
+     * @param spec Gem spec
+     */
+    public void add(final Key key, final GemSpec spec) {
+        final GemCatalog.State current = this.current();
+        GemCatalog.add(current.gems, key, spec);
+        current.ready.ifPresent(
+            ready -> ready.thenRun(() -> GemCatalog.add(this.current().gems, key, spec))
+        );
+    }
+
+    /**
+     * Move catalog to new index generation, committed by this node, if catalog
+     * is of the generation the commit was based on; otherwise catalog misses
+     * commits of other nodes and it's reloaded on next request. Gems, changed
+     * by the commit, should be added to or removed from catalog by the caller.
+     * @param before Generation before commit
+     * @param after Generation after commit
+     */
+    public synchronized void advance(final String before, final String after) {
+        if (this.state.generation.equals(Optional.of(before))) {
+            this.state = new GemCatalog.State(
+                Optional.of(after), this.state.gems, this.state.ready
+            );
+        }
+    }
+
+    /**
+     * Replace catalog with all gems of repository.
+     * @param gems Gem specs by storage keys
+     * @param after Index generation of the gems
+     */
+    public synchronized void replace(final Map<Key, GemSpec> gems, final String after) {
+        final ConcurrentMap<String, Map<NameTuple, Entry>> all = new ConcurrentHashMap<>();
+        gems.forEach((key, spec) -> GemCatalog.add(all, key, spec));
+        this.state = new GemCatalog.State(
+            Optional.of(after), all, Optional.of(CompletableFuture.allOf())
+        );
+    }
+
+    /**
+     * Remove gem version from catalog.
+     * @param tuple Gem name tuple
+     * @return Future with key of removed gem, empty if gem is not found
+     */
+    public CompletionStage<Optional<Key>> remove(final NameTuple tuple) {
+        return this.load().thenApply(
+            gems -> Optional.ofNullable(
+                gems.getOrDefault(tuple.name(), Collections.emptyMap()).remove(tuple)
+            ).map(entry -> entry.key)
+        );
+    }
+
+    /**
+     * Check whether gem version is in catalog.
+     * @param tuple Gem name tuple
+     * @return Future with true if gem version is in catalog
+     */
+    public CompletionStage<Boolean> contains(final NameTuple tuple) {
+        return this.load().thenApply(
+            gems -> gems.getOrDefault(tuple.name(), Collections.emptyMap()).containsKey(tuple)
+        );
+    }
+
+    /**
+     * Storage key of the latest gem version: the highest released version,
+     * or the highest prerelease version if gem has no releases.
+     * @param name Gem name
+     * @return Future with gem key, empty if gem is not found
+     */
+    public CompletionStage<Optional<Key>> latest(final String name) {
+        return this.load().thenApply(
+            gems -> {
+                final Map<NameTuple, Entry> versions =
+                    gems.getOrDefault(name, Collections.emptyMap());
+                final Optional<NameTuple> latest = versions.keySet().stream()
+                    .filter(tuple -> !tuple.version().prerelease())
+                    .max(GemCatalog.LATEST);
+                return latest.map(Optional::of)
+                    .orElseGet(() -> versions.keySet().stream().max(GemCatalog.LATEST))
+                    .map(tuple -> versions.get(tuple).key);
+            }
+        );
+    }
+
+    /**
+     * Runtime dependencies of all versions of gems.
+     * @param names Gem names
+     * @return Future with dependencies of each gem version
+     */
+    public CompletionStage<Map<NameTuple, List<GemDependency>>> dependencies(
+        final Collection<String> names) {
+        return this.load().thenCompose(
+            gems -> {
+                final Map<NameTuple, CompletableFuture<List<GemDependency>>> deps =
+                    new LinkedHashMap<>();
+                names.forEach(
+                    name -> gems.getOrDefault(name, Collections.emptyMap()).forEach(
+                        (tuple, entry) -> deps.put(tuple, entry.deps(this.storage))
+                    )
+                );
+                return CompletableFuture.allOf(deps.values().toArray(new CompletableFuture<?>[0]))
+                    .thenApply(
+                        none -> {
+                            final Map<NameTuple, List<GemDependency>> res =
+                                new LinkedHashMap<>();
+                            deps.forEach((tuple, list) -> res.put(tuple, list.join()));
+                            return res;
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Load catalog from specs index if it was not loaded yet or if index
+     * generation has changed.
+     * @return Future with gem versions by gem name
+     */
+    private CompletionStage<ConcurrentMap<String, Map<NameTuple, Entry>>> load() {
+        return this.generation.current().thenCompose(this::load);
+    }
+
+    /**
+     * Load catalog of index generation from specs index. Entries of versions,
+     * which are in the index, are kept; gems, added before the first load,
+     * are kept too.
+     * @param gen Index generation
+     * @return Future with gem versions by gem name
+     */
+    private synchronized CompletableFuture<ConcurrentMap<String, Map<NameTuple, Entry>>> load(
+        final String gen) {
+        final GemCatalog.State current = this.state;
+        if (!current.ready.isPresent() || !current.generation.equals(Optional.of(gen))) {
+            final boolean first = !current.ready.isPresent();
+            final CompletableFuture<Void> ready = new CompletableFuture<>();
+            final GemCatalog.State next = new GemCatalog.State(
+                Optional.of(gen), current.gems, Optional.of(ready)
+            );
+            this.state = next;
+            new StorageIndex(this.storage).load().whenComplete(
+                (index, err) -> {
+                    if (err == null) {
+                        this.loaded(next, GemCatalog.merge(index, current.gems, first));
+                        ready.complete(null);
+                    } else {
+                        synchronized (this) {
+                            if (this.state.ready.equals(next.ready)) {
+                                this.state = new GemCatalog.State(
+                                    Optional.empty(), current.gems, Optional.empty()
+                                );
+                            }
+                        }
+                        ready.completeExceptionally(err);
+                    }
+                }
+            );
+        }
+        return this.state.ready.get().thenApply(none -> this.current().gems);
+    }
+
+    /**
+     * Set loaded gems if catalog is still of the same load.
+     * @param load State of the load
+     * @param gems Loaded gems
+     */
+    private synchronized void loaded(final GemCatalog.State load,
+        final ConcurrentMap<String, Map<NameTuple, Entry>> gems) {
+        if (this.state.ready.equals(load.ready)) {
+            this.state = new GemCatalog.State(this.state.generation, gems, this.state.ready);
+        }
+    }
+
+    /**
+     * Current catalog state.
+     * @return State
+     */
+    private synchronized GemCatalog.State current() {
+        return this.state;
+    }
+
+    /**
+     * Merge specs index with known gems: known entries of indexed versions are
+     * kept, new versions are resolved to canonical gem keys.
+     * @param index Specs index
+     * @param known Known gem versions by gem name
+     * @param first Whether it's the first load, so all known gems should be kept
+     * @return Gem versions by gem name
+     */
+    private static ConcurrentMap<String, Map<NameTuple, Entry>> merge(final SpecsIndex index,
+        final ConcurrentMap<String, Map<NameTuple, Entry>> known, final boolean first) {
+        final ConcurrentMap<String, Map<NameTuple, Entry>> res = new ConcurrentHashMap<>();
+        for (final NameTuple tuple : index.all()) {
+            if (GemKeys.valid(tuple)) {
+                final Entry entry = known.getOrDefault(tuple.name(), Collections.emptyMap())
+                    .get(tuple);
+                res.computeIfAbsent(tuple.name(), name -> new ConcurrentSkipListMap<>()).put(
+                    tuple, Optional.ofNullable(entry).orElseGet(() -> new Entry(tuple))
+                );
+            }
+        }
+        if (first) {
+            known.forEach(
+                (name, versions) -> versions.forEach(
+                    (tuple, entry) -> res.computeIfAbsent(
+                        name, ignored -> new ConcurrentSkipListMap<>()
+                    ).putIfAbsent(tuple, entry)
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Add gem to gem versions.
+     * @param gems Gem versions by gem name
+     * @param key Gem storage key
+     * @param spec Gem spec
+     */
+    private static void add(final ConcurrentMap<String, Map<NameTuple, Entry>> gems,
+        final Key key, final GemSpec spec) {
+        gems.computeIfAbsent(spec.name(), name -> new ConcurrentSkipListMap<>())
+            .put(spec.tuple(), new Entry(key, spec.runtimeDependencies()));
+    }
+
+    /**
+     * Catalog state: gem versions of index generation.
+     * @since 1.0
+     */
+    private static final class State {
+
+        /**
+         * Index generation, empty if catalog was not loaded.
+         */
+        private final Optional<String> generation;
+
+        /**
+         * Gem versions by gem name.
+         */
+        private final ConcurrentMap<String, Map<NameTuple, Entry>> gems;
+
+        /**
+         * Catalog loading future, empty if catalog was not loaded.
+         */
+        private final Optional<CompletableFuture<Void>> ready;
+
+        /**
+         * Ctor.
+         * @param generation Index generation
+         * @param gems Gem versions by gem name
+         * @param ready Catalog loading future
+         */
+        State(final Optional<String> generation,
+            final ConcurrentMap<String, Map<NameTuple, Entry>> gems,
+            final Optional<CompletableFuture<Void>> ready) {
+            this.generation = generation;
+            this.gems = gems;
+            this.ready = ready;
+        }
+    }
+
+    /**
+     * Catalog entry of gem version.
+     * @since 1.0
+     */
+    private static final class Entry {
+
+        /**
+         * Gem storage key.
+         */
+        private final Key key;
+
+        /**
+         * Runtime dependencies, null if they were not read yet.
+         */
+        private final AtomicReference<CompletableFuture<List<GemDependency>>> deps;
+
+        /**
+         * New entry of indexed gem version with canonical key, runtime
+         * dependencies are read on first request.
+         * @param tuple Gem name tuple
+         */
+        Entry(final NameTuple tuple) {
+            this.key = GemKeys.gem(tuple);
+            this.deps = new AtomicReference<>();
+        }
+
+        /**
+         * New entry.
+         * @param key Gem storage key
+         * @param deps Runtime dependencies
+         */
+        Entry(final Key key, final List<GemDependency> deps) {
+            this.key = key;
+            this.deps = new AtomicReference<>(CompletableFuture.completedFuture(deps));
+        }
+
+        /**
+         * Runtime dependencies, read from gem package if they were not read yet.
+         * Dependencies of gem, which can't be read, are empty; they're read
+         * again on next request.
+         * @param storage Repository storage
+         * @return Future with runtime dependencies
+         */
+        CompletableFuture<List<GemDependency>> deps(final Storage storage) {
+            final CompletableFuture<List<GemDependency>> read = new CompletableFuture<>();
+            final CompletableFuture<List<GemDependency>> res;
+            if (this.deps.compareAndSet(null, read)) {
+                storage.value(this.key)
+                    .thenCompose(content -> new GemPackage(content).spec())
+                    .whenComplete(
+                        (spec, err) -> {
+                            if (err == null) {
+                                read.complete(spec.runtimeDependencies());
+                            } else {
+                                Logger.warn(
+                                    GemCatalog.class,
+                                    "Failed to read gem spec of %s: %[exception]s",
+                                    this.key.string(), err
+                                );
+                                this.deps.compareAndSet(read, null);
+                                read.complete(Collections.emptyList());
+                            }
+                        }
+                    );
+                res = read;
+            } else {
+                res = Optional.ofNullable(this.deps.get()).orElseGet(() -> this.deps(storage));
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Storage keys of gem repository items, built from gem names.
+ * <p>
+ * Gem names, versions and platforms come from uploaded or stored gem
+ * specifications, so every part of the key is validated: only latin letters,
+ * digits, dots, underscores and dashes are allowed, parts made of dots only
+ * are rejected. Invalid parts are never turned into storage keys, so
+ * a specification can't point a key outside of its directory.
+ * </p>
+ * @since 1.0
+ */
+public final class GemKeys {
+
+    /**
+     * Valid name part pattern.
+     */
+    private static final Pattern PART = Pattern.compile("(?!\\.+$)[A-Za-z0-9._-]+");
+
+    /**
+     * Staging key pattern.
+     */
+    private static final Pattern STAGED = Pattern.compile(
+        "\\.uploads/(\\d{1,18})-[0-9a-f-]+"
+    );
+
+    /**
+     * Quick specs directory.
+     */
+    public static final Key QUICK = new Key.From("quick", "Marshal.4.8");
+
+    /**
+     * Compact index info files directory.
+     */
+    public static final Key INFO = new Key.From("info");
+
+    /**
+     * Gems directory.
+     */
+    public static final Key GEMS = new Key.From("gems");
+
+    /**
+     * Staging directory of uploaded gems.
+     */
+    public static final Key UPLOADS = new Key.From(".uploads");
+
+    /**
+     * Utility class.
+     */
+    private GemKeys() {
+    }
+
+    /**
+     * Check name part: gem name, version, platform or full name.
+     * @param part Name part
+     * @return True if the part can be used in storage key
+     */
+    public static boolean valid(final String part) {
+        return part != null && GemKeys.PART.matcher(part).matches();
+    }
+
+    /**
+     * Check every part of name tuple.
+     * @param tuple Name tuple
+     * @return True if the tuple can be used in storage key
+     */
+    public static boolean valid(final NameTuple tuple) {
+        return GemKeys.valid(tuple.name()) && GemKeys.valid(tuple.version().toString())
+            && GemKeys.valid(tuple.platform());
+    }
+
+    /**
+     * Gem package key: {@code gems/NAME-VERSION[-PLATFORM].gem}.
+     * @param tuple Gem name tuple
+     * @return Gem key
+     * @throws IllegalArgumentException If tuple is not valid
+     */
+    public static Key gem(final NameTuple tuple) {
+        return GemKeys.gem(GemKeys.checked(tuple).fullName());
+    }
+
+    /**
+     * Gem package key by full gem name.
+     * @param id Full gem name, e.g. {@code rails-6.0.2.2}
+     * @return Gem key
+     * @throws IllegalArgumentException If name is not valid
+     */
+    public static Key gem(final String id) {
+        return new Key.From(GemKeys.GEMS, String.format("%s.gem", GemKeys.checked(id)));
+    }
+
+    /**
+     * Quick spec key: {@code quick/Marshal.4.8/NAME-VERSION[-PLATFORM].gemspec.rz}.
+     * @param tuple Gem name tuple
+     * @return Quick spec key
+     * @throws IllegalArgumentException If tuple is not valid
+     */
+    public static Key quick(final NameTuple tuple) {
+        return new Key.From(
+            GemKeys.QUICK, String.format("%s.gemspec.rz", GemKeys.checked(tuple).fullName())
+        );
+    }
+
+    /**
+     * Compact index info file key: {@code info/NAME}.
+     * @param name Gem name
+     * @return Info file key
+     * @throws IllegalArgumentException If name is not valid
+     */
+    public static Key info(final String name) {
+        return new Key.From(GemKeys.INFO, GemKeys.checked(name));
+    }
+
+    /**
+     * New staging key of uploaded gem: upload start time and random id.
+     * @param time Upload start time
+     * @return Staging key
+     */
+    public static Key upload(final Instant time) {
+        return new Key.From(
+            GemKeys.UPLOADS, String.format("%d-%s", time.toEpochMilli(), UUID.randomUUID())
+        );
+    }
+
+    /**
+     * Upload start time of staging key.
+     * @param staged Staging key
+     * @return Upload start time, empty if key is not a staging key of {@link #upload(Instant)}
+     */
+    public static Optional<Instant> uploaded(final Key staged) {
+        final Matcher matcher = GemKeys.STAGED.matcher(staged.string());
+        final Optional<Instant> res;
+        if (matcher.matches()) {
+            res = Optional.of(Instant.ofEpochMilli(Long.parseLong(matcher.group(1))));
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Validated name tuple.
+     * @param tuple Name tuple
+     * @return The same tuple
+     * @throws IllegalArgumentException If tuple is not valid
+     */
+    private static NameTuple checked(final NameTuple tuple) {
+        if (!GemKeys.valid(tuple)) {
+            throw new IllegalArgumentException(
+                String.format("Invalid gem name tuple: %s", tuple)
+            );
+        }
+        return tuple;
+    }
+
+    /**
+     * Validated name part.
+     * @param part Name part
+     * @return The same part
+     * @throws IllegalArgumentException If part is not valid
+     */
+    private static String checked(final String part) {
+        if (!GemKeys.valid(part)) {
+            throw new IllegalArgumentException(String.format("Invalid gem name: %s", part));
+        }
+        return part;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import com.jcabi.log.Logger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel scan of gem packages.
+ * <p>
+ * Gems are read asynchronously with bounded concurrency: fixed number of
+ * workers take gem keys from shared queue, each worker starts reading next
+ * gem when previous one is read, so no threads are created and none of them
+ * is blocked. Only package header is read up to {@code metadata.gz} entry.
+ * Quick spec of each gem is written as soon as its spec is read. Gems, which
+ * can't be read or have invalid name tuple, are skipped.
+ * </p>
+ * @since 1.0
+ */
+public final class GemScan {
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Number of gems read in parallel.
+     */
+    private final int parallelism;
+
+    /**
+     * New scan with parallelism equal to available processors.
+     * @param storage Repository storage
+     */
+    public GemScan(final Storage storage) {
+        this(storage, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * New scan.
+     * @param storage Repository storage
+     * @param parallelism Number of gems read in parallel
+     */
+    public GemScan(final Storage storage, final int parallelism) {
+        this.storage = storage;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Read specs of gems and write their quick specs.
+     * @param gems Gem keys
+     * @return Future with specs of gems by gem keys
+     */
+    public CompletionStage<Map<Key, GemSpec>> specs(final Collection<Key> gems) {
+        final StorageIndex index = new StorageIndex(this.storage);
+        return this.each(
+            gems,
+            gem -> this.storage.value(gem)
+                .thenCompose(content -> new GemPackage(content).spec())
+                .thenCompose(
+                    spec -> {
+                        final CompletionStage<Optional<GemSpec>> res;
+                        if (GemKeys.valid(spec.tuple())) {
+                            res = index.quick(spec).thenApply(none -> Optional.of(spec));
+                        } else {
+                            Logger.warn(
+                                GemScan.class, "Invalid gem name tuple of %s: %s",
+                                gem.string(), spec.tuple()
+                            );
+                            res = CompletableFuture.completedFuture(Optional.empty());
+                        }
+                        return res;
+                    }
+                )
+        );
+    }
+
+    /**
+     * Read SHA-256 checksums of gems.
+     * @param gems Gem keys
+     * @return Future with checksums by gem keys
+     */
+    public CompletionStage<Map<Key, String>> checksums(final Collection<Key> gems) {
+        final Checksums sums = new Checksums(this.storage);
+        return this.each(gems, gem -> sums.get(gem).thenApply(Optional::of));
+    }
+
+    /**
+     * Read value of each gem with bounded number of workers.
+     * @param gems Gem keys
+     * @param read Gem reader, returns empty value for skipped gem
+     * @param <T> Value type
+     * @return Future with values by gem keys
+     */
+    private <T> CompletionStage<Map<Key, T>> each(final Collection<Key> gems,
+        final Function<Key, CompletionStage<Optional<T>>> read) {
+        final Queue<Key> queue = new ConcurrentLinkedQueue<>(gems);
+        final Map<Key, T> res = new ConcurrentHashMap<>(gems.size());
+        return CompletableFuture.allOf(
+            IntStream.range(0, Math.min(this.parallelism, gems.size()))
+                .mapToObj(idx -> GemScan.worker(queue, read, res))
+                .toArray(CompletableFuture<?>[]::new)
+        ).thenApply(none -> res);
+    }
+
+    /**
+     * Worker, which reads gems from queue one by one until queue is empty.
+     * <p>
+     * Next gem is read asynchronously, so worker doesn't grow the stack when
+     * storage completes reads synchronously.
+     * </p>
+     * @param queue Gem keys queue
+     * @param read Gem reader
+     * @param values Read values by gem keys
+     * @param <T> Value type
+     * @return Future completed when queue is empty
+     */
+    private static <T> CompletableFuture<Void> worker(final Queue<Key> queue,
+        final Function<Key, CompletionStage<Optional<T>>> read, final Map<Key, T> values) {
+        final Key gem = queue.poll();
+        final CompletableFuture<Void> res;
+        if (gem == null) {
+            res = CompletableFuture.allOf();
+        } else {
+            res = read.apply(gem).toCompletableFuture().handle(
+                (value, err) -> {
+                    if (err == null) {
+                        value.ifPresent(val -> values.put(gem, val));
+                    } else {
+                        Logger.warn(
+                            GemScan.class, "Failed to read gem %s: %[exception]s",
+                            gem.string(), err
+                        );
+                    }
+                    return gem;
+                }
+            ).thenComposeAsync(none -> GemScan.worker(queue, read, values));
+        }
+        return res;
+    }
+
+    /**
+     * Scan result: specs and checksums of gems.
+     * @since 1.0
+     */
+    public static final class Result {
+
+        /**
+         * Gem specs by gem keys.
+         */
+        private final Map<Key, GemSpec> specs;
+
+        /**
+         * Gem checksums by gem keys.
+         */
+        private final Map<Key, String> sums;
+
+        /**
+         * Ctor.
+         * @param specs Gem specs by gem keys
+         * @param sums Gem checksums by gem keys
+         */
+        public Result(final Map<Key, GemSpec> specs, final Map<Key, String> sums) {
+            this.specs = Collections.unmodifiableMap(specs);
+            this.sums = Collections.unmodifiableMap(sums);
+        }
+
+        /**
+         * Gem specs.
+         * @return Gem specs by gem keys
+         */
+        public Map<Key, GemSpec> specs() {
+            return this.specs;
+        }
+
+        /**
+         * Gem checksums.
+         * @return Gem checksums by gem keys
+         */
+        public Map<Key, String> checksums() {
+            return this.sums;
+        }
+
+        /**
+         * Merge with result of other scan.
+         * @param other Other result
+         * @return Merged result
+         */
+        public Result merge(final Result other) {
+            final Map<Key, GemSpec> all = new HashMap<>(this.specs);
+            all.putAll(other.specs);
+            final Map<Key, String> checksums = new HashMap<>(this.sums);
+            checksums.putAll(other.sums);
+            return new Result(all, checksums);
+        }
+
+        /**
+         * Result of given gems only.
+         * @param gems Gem keys to keep
+         * @return Result
+         */
+        public Result retain(final Collection<Key> gems) {
+            final Map<Key, GemSpec> all = new HashMap<>(this.specs);
+            all.keySet().retainAll(gems);
+            final Map<Key, String> checksums = new HashMap<>(this.sums);
+            checksums.keySet().retainAll(gems);
+            return new Result(all, checksums);
+        }
+    }
+}
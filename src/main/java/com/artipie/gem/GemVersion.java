@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gem version, compared the same way as {@code Gem::Version} does.
+ * @since 1.0
+ */
+public final class GemVersion implements Comparable<GemVersion> {
+
+    /**
+     * Version segment pattern.
+     */
+    private static final Pattern SEGMENT = Pattern.compile("[0-9]+|[a-zA-Z]+");
+
+    /**
+     * Version string.
+     */
+    private final String version;
+
+    /**
+     * New gem version.
+     * @param version Version string
+     */
+    public GemVersion(final String version) {
+        this.version = version.trim().replace("-", ".pre.");
+    }
+
+    /**
+     * Is this version a prerelease, i.e. contains any letter.
+     * @return True if prerelease
+     */
+    public boolean prerelease() {
+        return this.version.chars().anyMatch(Character::isLetter);
+    }
+
+    @Override
+    public int compareTo(final GemVersion other) {
+        final List<Object> left = this.canonical();
+        final List<Object> right = other.canonical();
+        int res = 0;
+        for (int idx = 0; idx < Math.max(left.size(), right.size()) && res == 0; ++idx) {
+            res = GemVersion.compare(
+                GemVersion.segment(left, idx), GemVersion.segment(right, idx)
+            );
+        }
+        return res;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        final boolean res;
+        if (this == other) {
+            res = true;
+        } else if (other == null || this.getClass() != other.getClass()) {
+            res = false;
+        } else {
+            res = this.version.equals(((GemVersion) other).version);
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.version.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.version;
+    }
+
+    /**
+     * Canonical segments: numeric and string parts without trailing zeros.
+     * @return Segments list of {@link Long} and {@link String} items
+     */
+    private List<Object> canonical() {
+        final List<Object> numeric = new ArrayList<>(4);
+        final List<Object> strings = new ArrayList<>(2);
+        final Matcher matcher = GemVersion.SEGMENT.matcher(this.version);
+        while (matcher.find()) {
+            final String seg = matcher.group();
+            if (Character.isDigit(seg.charAt(0)) && strings.isEmpty()) {
+                numeric.add(Long.parseLong(seg));
+            } else if (Character.isDigit(seg.charAt(0))) {
+                strings.add(Long.parseLong(seg));
+            } else {
+                strings.add(seg);
+            }
+        }
+        GemVersion.trim(numeric);
+        GemVersion.trim(strings);
+        final List<Object> res = new ArrayList<>(numeric.size() + strings.size());
+        res.addAll(numeric);
+        res.addAll(strings);
+        return Collections.unmodifiableList(res);
+    }
+
+    /**
+     * Remove trailing zero segments.
+     * @param segments Segments
+     */
+    private static void trim(final List<Object> segments) {
+        while (!segments.isEmpty()
+            && Long.valueOf(0L).equals(segments.get(segments.size() - 1))) {
+            segments.remove(segments.size() - 1);
+        }
+    }
+
+    /**
+     * Segment at index or zero.
+     * @param segments Segments
+     * @param idx Index
+     * @return Segment
+     */
+    private static Object segment(final List<Object> segments, final int idx) {
+        final Object res;
+        if (idx < segments.size()) {
+            res = segments.get(idx);
+        } else {
+            res = 0L;
+        }
+        return res;
+    }
+
+    /**
+     * Compare two segments: strings are lower than numbers.
+     * @param left Left segment
+     * @param right Right segment
+     * @return Comparison result
+     */
+    private static int compare(final Object left, final Object right) {
+        final int res;
+        if (left instanceof String && right instanceof String) {
+            res = Integer.signum(((String) left).compareTo((String) right));
+        } else if (left instanceof String) {
+            res = -1;
+        } else if (right instanceof String) {
+            res = 1;
+        } else {
+            res = Long.compare((Long) left, (Long) right);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index generation marker, stored in {@code .meta/generation} item.
+ * <p>
+ * Each index commit starts new generation, so in-memory copies of index data
+ * can be revalidated against the marker, including commits made by other nodes,
+ * sharing the same storage. The marker is read from storage at most once per
+ * check interval, in-between the last read generation is used. Generation
+ * carries the time of index commit, see {@link #committed(String)}.
+ * </p>
+ * @since 1.0
+ */
+public final class IndexGeneration {
+
+    /**
+     * Generation marker key.
+     */
+    static final Key KEY = new Key.From(".meta", "generation");
+
+    /**
+     * Default check interval.
+     */
+    private static final Duration INTERVAL = Duration.ofSeconds(1L);
+
+    /**
+     * Generation format: random id and commit time in epoch millis.
+     */
+    private static final Pattern FORMAT = Pattern.compile("[0-9a-f-]+ (\\d{1,18})");
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Check interval.
+     */
+    private final Duration interval;
+
+    /**
+     * Last read generation.
+     */
+    private final AtomicReference<IndexGeneration.Checked> last;
+
+    /**
+     * New generation with default check interval.
+     * @param storage Repository storage
+     */
+    public IndexGeneration(final Storage storage) {
+        this(storage, IndexGeneration.INTERVAL);
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage Repository storage
+     * @param interval Check interval
+     */
+    public IndexGeneration(final Storage storage, final Duration interval) {
+        this.storage = storage;
+        this.interval = interval;
+        this.last = new AtomicReference<>(new IndexGeneration.Checked("", Instant.MIN));
+    }
+
+    /**
+     * Current generation, read from storage if it was not checked
+     * during check interval.
+     * @return Future with generation, empty string if it was never started
+     */
+    public CompletionStage<String> current() {
+        final IndexGeneration.Checked checked = this.last.get();
+        final CompletionStage<String> res;
+        if (checked.time.plus(this.interval).isAfter(Instant.now())) {
+            res = CompletableFuture.completedFuture(checked.value);
+        } else {
+            res = this.fresh();
+        }
+        return res;
+    }
+
+    /**
+     * Current generation, read from storage.
+     * @return Future with generation, empty string if it was never started
+     */
+    public CompletionStage<String> fresh() {
+        final Instant time = Instant.now();
+        return this.storage.exists(IndexGeneration.KEY).thenCompose(
+            exists -> {
+                final CompletionStage<String> res;
+                if (exists) {
+                    res = this.storage.value(IndexGeneration.KEY).thenCompose(
+                        content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture("");
+                }
+                return res;
+            }
+        ).thenApply(
+            value -> {
+                this.last.set(new IndexGeneration.Checked(value, time));
+                return value;
+            }
+        );
+    }
+
+    /**
+     * Start new generation.
+     * @return Future with new generation
+     */
+    public CompletionStage<String> next() {
+        final Instant time = Instant.now();
+        final String next = String.format("%s %d", UUID.randomUUID(), time.toEpochMilli());
+        return this.storage.save(
+            IndexGeneration.KEY, new Content.From(next.getBytes(StandardCharsets.UTF_8))
+        ).thenApply(
+            none -> {
+                this.last.set(new IndexGeneration.Checked(next, time));
+                return next;
+            }
+        );
+    }
+
+    /**
+     * Index commit time of generation.
+     * @param generation Generation
+     * @return Commit time, empty if generation was never started or was
+     *  started by older version without commit time
+     */
+    static Optional<Instant> committed(final String generation) {
+        final Matcher matcher = IndexGeneration.FORMAT.matcher(generation);
+        final Optional<Instant> res;
+        if (matcher.matches()) {
+            res = Optional.of(Instant.ofEpochMilli(Long.parseLong(matcher.group(1))));
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Generation, read at some time.
+     * @since 1.0
+     */
+    private static final class Checked {
+
+        /**
+         * Generation.
+         */
+        private final String value;
+
+        /**
+         * Time of read.
+         */
+        private final Instant time;
+
+        /**
+         * Ctor.
+         * @param value Generation
+         * @param time Time of read
+         */
+        Checked(final String value, final Instant time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Journal of pending index operations.
+ * <p>
+ * Gem key is written to the journal by {@link Gem#publish(Key, Key, String)}
+ * under index lock, before staged gem is moved to its canonical key, and
+ * removed after the gem is committed to index, so gems, left unindexed by
+ * process crash, can be found and indexed by {@link Gem#recover()}. Each journal entry is stored
+ * as separate item under {@code .journal} key with gem key as content.
+ * </p>
+ * @since 1.0
+ */
+public final class IndexJournal {
+
+    /**
+     * Journal root key.
+     */
+    private static final Key ROOT = new Key.From(".journal");
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New journal.
+     * @param storage Repository storage
+     */
+    public IndexJournal(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Add gem to journal.
+     * @param gem Gem key
+     * @return Future, completed when entry is saved
+     */
+    public CompletionStage<Void> add(final Key gem) {
+        return this.storage.save(
+            IndexJournal.entry(gem),
+            new Content.From(gem.string().getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Remove committed gems from journal.
+     * @param gems Gem keys
+     * @return Future, completed when entries are removed
+     */
+    public CompletionStage<Void> remove(final Collection<Key> gems) {
+        return CompletableFuture.allOf(
+            gems.stream().map(
+                gem -> this.storage.exists(IndexJournal.entry(gem)).thenCompose(
+                    exists -> {
+                        final CompletionStage<Void> res;
+                        if (exists) {
+                            res = this.storage.delete(IndexJournal.entry(gem));
+                        } else {
+                            res = CompletableFuture.allOf();
+                        }
+                        return res;
+                    }
+                ).toCompletableFuture()
+            ).toArray(CompletableFuture<?>[]::new)
+        );
+    }
+
+    /**
+     * Pending gems.
+     * @return Future with keys of gems, which were not committed to index
+     */
+    public CompletionStage<List<Key>> pending() {
+        return this.storage.list(IndexJournal.ROOT).thenCompose(
+            entries -> {
+                final List<CompletableFuture<Key>> gems = entries.stream().map(
+                    entry -> this.storage.value(entry).thenCompose(
+                        content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                    ).<Key>thenApply(Key.From::new)
+                        .toCompletableFuture()
+                ).collect(Collectors.toList());
+                return CompletableFuture.allOf(gems.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(
+                        none -> gems.stream().map(CompletableFuture::join)
+                            .collect(Collectors.toList())
+                    );
+            }
+        );
+    }
+
+    /**
+     * Journal entry key of gem.
+     * @param gem Gem key
+     * @return Entry key
+     */
+    private static Key entry(final Key gem) {
+        return new Key.From(
+            IndexJournal.ROOT,
+            UUID.nameUUIDFromBytes(gem.string().getBytes(StandardCharsets.UTF_8)).toString()
+        );
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.UnderLockOperation;
+import com.artipie.asto.lock.RetryLock;
+import com.artipie.asto.lock.storage.StorageLock;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.RetryConfig;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * Storage lock of gem index.
+ * <p>
+ * Index update is performed under storage lock on {@code specs.4.8} key,
+ * so concurrent writers from different nodes, sharing the same storage, never
+ * overwrite each other's changes. Lock is acquired with bounded number of
+ * randomized retries and expires after timeout, if the owner has crashed
+ * without releasing it.
+ * </p>
+ * @since 1.0
+ */
+public final class IndexLock {
+
+    /**
+     * Lock key.
+     */
+    private static final Key KEY = new Key.From("specs.4.8");
+
+    /**
+     * Default lock retries scheduler.
+     */
+    private static final ScheduledExecutorService SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, IndexLock.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Lock retries scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Retry config of lock acquiring.
+     */
+    private final RetryConfig retry;
+
+    /**
+     * Lock expiration timeout.
+     */
+    private final Duration timeout;
+
+    /**
+     * Index lock with default settings: up to 300 attempts with 100ms randomized
+     * interval, and 5 minutes lock expiration.
+     * @param storage Repository storage
+     */
+    public IndexLock(final Storage storage) {
+        this(
+            storage, IndexLock.SCHEDULER,
+            RetryConfig.custom()
+                .maxAttempts(300)
+                .intervalFunction(IntervalFunction.ofRandomized(Duration.ofMillis(100L)))
+                .build(),
+            Duration.ofMinutes(5L)
+        );
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage Repository storage
+     * @param scheduler Lock retries scheduler
+     * @param retry Retry config of lock acquiring
+     * @param timeout Lock expiration timeout
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public IndexLock(final Storage storage, final ScheduledExecutorService scheduler,
+        final RetryConfig retry, final Duration timeout) {
+        this.storage = storage;
+        this.scheduler = scheduler;
+        this.retry = retry;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Perform index operation under lock.
+     * @param operation Index operation
+     * @param <T> Result type
+     * @return Operation result
+     */
+    public <T> CompletionStage<T> perform(final Function<Storage, CompletionStage<T>> operation) {
+        return new UnderLockOperation<>(
+            new RetryLock(
+                this.scheduler,
+                new StorageLock(this.storage, IndexLock.KEY, Instant.now().plus(this.timeout)),
+                this.retry
+            ),
+            operation
+        ).perform(this.storage);
+    }
+}
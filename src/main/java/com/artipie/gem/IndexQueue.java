@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Indexing queue, which coalesces gem keys into batches.
+ * <p>
+ * Keys added within a time window are collected and passed to index action
+ * as one batch. Batches are processed one by one, so index files are never
+ * updated concurrently by the same queue. Each future returned by
+ * {@link #add(Key)} is completed when the batch containing its key is committed.
+ * </p>
+ * @since 1.0
+ */
+public final class IndexQueue {
+
+    /**
+     * Default batch window in milliseconds.
+     */
+    private static final long WINDOW = 100L;
+
+    /**
+     * Default scheduler for batches.
+     */
+    private static final ScheduledExecutorService SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, IndexQueue.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Index action for batch of keys.
+     */
+    private final Function<Collection<Key>, CompletionStage<Void>> action;
+
+    /**
+     * Batches scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Batch window in milliseconds.
+     */
+    private final long window;
+
+    /**
+     * Pending keys of next batch with their results.
+     */
+    private final Map<Key, CompletableFuture<Void>> pending;
+
+    /**
+     * Last batch future.
+     */
+    private CompletableFuture<Void> last;
+
+    /**
+     * Queue with default scheduler and window.
+     * @param action Index action for batch of keys
+     */
+    public IndexQueue(final Function<Collection<Key>, CompletionStage<Void>> action) {
+        this(action, IndexQueue.SCHEDULER, IndexQueue.WINDOW);
+    }
+
+    /**
+     * Primary ctor.
+     * @param action Index action for batch of keys
+     * @param scheduler Batches scheduler
+     * @param window Batch window in milliseconds
+     */
+    public IndexQueue(final Function<Collection<Key>, CompletionStage<Void>> action,
+        final ScheduledExecutorService scheduler, final long window) {
+        this.action = action;
+        this.scheduler = scheduler;
+        this.window = window;
+        this.pending = new LinkedHashMap<>();
+        this.last = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Add key to next batch.
+     * @param key Gem key
+     * @return Future, completed when batch with this key is committed
+     */
+    public CompletionStage<Void> add(final Key key) {
+        synchronized (this.pending) {
+            if (this.pending.isEmpty()) {
+                this.scheduler.schedule(this::flush, this.window, TimeUnit.MILLISECONDS);
+            }
+            return this.pending.computeIfAbsent(key, ignored -> new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Take pending keys and process them as one batch after previous batch.
+     */
+    private void flush() {
+        final Map<Key, CompletableFuture<Void>> batch;
+        synchronized (this.pending) {
+            batch = new LinkedHashMap<>(this.pending);
+            this.pending.clear();
+            this.last = this.last.handle((none, err) -> batch).thenCompose(
+                keys -> this.action.apply(new ArrayList<>(keys.keySet()))
+            ).whenComplete(
+                (none, err) -> batch.values().forEach(
+                    future -> {
+                        if (err == null) {
+                            future.complete(null);
+                        } else {
+                            future.completeExceptionally(err);
+                        }
+                    }
+                )
+            );
+        }
+    }
+}
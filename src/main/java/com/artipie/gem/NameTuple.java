@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Gem name tuple: name, version and platform of the gem,
+ * the item of {@code specs.4.8} index files.
+ * @since 1.0
+ */
+public final class NameTuple implements Comparable<NameTuple> {
+
+    /**
+     * Default platform name.
+     */
+    public static final String RUBY = "ruby";
+
+    /**
+     * Tuples order used by gem indexer: name, version and ruby platform first.
+     */
+    private static final Comparator<NameTuple> ORDER =
+        Comparator.comparing(NameTuple::name)
+            .thenComparing(NameTuple::version)
+            .thenComparingInt(NameTuple::priority)
+            .thenComparing(NameTuple::platform)
+            .thenComparing(tuple -> tuple.version().toString());
+
+    /**
+     * Gem name.
+     */
+    private final String nme;
+
+    /**
+     * Gem version.
+     */
+    private final GemVersion ver;
+
+    /**
+     * Gem platform.
+     */
+    private final String pltf;
+
+    /**
+     * New name tuple.
+     * @param name Gem name
+     * @param version Gem version
+     * @param platform Gem platform
+     */
+    public NameTuple(final String name, final String version, final String platform) {
+        this(name, new GemVersion(version), platform);
+    }
+
+    /**
+     * New name tuple.
+     * @param name Gem name
+     * @param version Gem version
+     * @param platform Gem platform
+     */
+    public NameTuple(final String name, final GemVersion version, final String platform) {
+        this.nme = name;
+        this.ver = version;
+        this.pltf = platform;
+    }
+
+    /**
+     * Gem name.
+     * @return Name
+     */
+    public String name() {
+        return this.nme;
+    }
+
+    /**
+     * Gem version.
+     * @return Version
+     */
+    public GemVersion version() {
+        return this.ver;
+    }
+
+    /**
+     * Gem platform.
+     * @return Platform
+     */
+    public String platform() {
+        return this.pltf;
+    }
+
+    /**
+     * Full gem name, e.g. {@code name-version} or {@code name-version-platform}.
+     * @return Full name
+     */
+    public String fullName() {
+        final String res;
+        if (NameTuple.RUBY.equals(this.pltf)) {
+            res = String.format("%s-%s", this.nme, this.ver);
+        } else {
+            res = String.format("%s-%s-%s", this.nme, this.ver, this.pltf);
+        }
+        return res;
+    }
+
+    @Override
+    public int compareTo(final NameTuple other) {
+        return NameTuple.ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        final boolean res;
+        if (this == other) {
+            res = true;
+        } else if (other == null || this.getClass() != other.getClass()) {
+            res = false;
+        } else {
+            final NameTuple tuple = (NameTuple) other;
+            res = this.nme.equals(tuple.nme) && this.ver.equals(tuple.ver)
+                && this.pltf.equals(tuple.pltf);
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.nme, this.ver, this.pltf);
+    }
+
+    @Override
+    public String toString() {
+        return this.fullName();
+    }
+
+    /**
+     * Platform sort priority, ruby platform goes first.
+     * @return Priority
+     */
+    private int priority() {
+        final int res;
+        if (NameTuple.RUBY.equals(this.pltf)) {
+            res = -1;
+        } else {
+            res = 1;
+        }
+        return res;
+    }
+}
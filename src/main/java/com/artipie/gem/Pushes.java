@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Statuses of pushed gems.
+ * <p>
+ * Each pushed gem key is tracked from the moment it's queued for indexing
+ * until it's published or failed. Statuses are kept for limited time, the
+ * number of tracked pushes is bounded.
+ * </p>
+ * @since 1.0
+ */
+public final class Pushes {
+
+    /**
+     * Statuses by gem key.
+     */
+    private final ExpiringMap<Key, Status> statuses;
+
+    /**
+     * New pushes with default limits.
+     */
+    public Pushes() {
+        this(10_000L, Duration.ofHours(1L));
+    }
+
+    /**
+     * Primary ctor.
+     * @param size Max number of tracked pushes
+     * @param ttl Time to keep push status
+     */
+    public Pushes(final long size, final Duration ttl) {
+        this.statuses = new ExpiringMap<>(size, ttl);
+    }
+
+    /**
+     * Update status of pushed gems.
+     * @param gems Gem keys
+     * @param status New status
+     */
+    public void update(final Collection<Key> gems, final Status status) {
+        gems.forEach(gem -> this.statuses.put(gem, status));
+    }
+
+    /**
+     * Status of pushed gem.
+     * @param gem Gem key
+     * @return Status if push is tracked
+     */
+    public Optional<Status> status(final Key gem) {
+        return this.statuses.get(gem);
+    }
+
+    /**
+     * Push status.
+     * @since 1.0
+     */
+    public enum Status {
+        /**
+         * Gem is stored and waits for indexing.
+         */
+        QUEUED,
+
+        /**
+         * Gem is being indexed.
+         */
+        INDEXING,
+
+        /**
+         * Gem is indexed and available for clients.
+         */
+        PUBLISHED,
+
+        /**
+         * Gem indexing failed.
+         */
+        FAILED;
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase(Locale.US);
+        }
+    }
+}
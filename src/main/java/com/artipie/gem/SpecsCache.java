@@ -0,0 +1,441 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Hot cache of specs index files.
+ * <p>
+ * Files are kept in read-only direct buffers, off Java heap, total size
+ * of cached files is bounded. File revision is computed once, when the file
+ * is loaded: its modification time is the commit time of index generation,
+ * where file content was changed last time, see
+ * {@link IndexGeneration#committed(String)}. Cached files are read by concurrent
+ * responses via buffer duplicates without copying. Cache content is
+ * an immutable snapshot of some index generation, which is replaced atomically
+ * with {@link #refresh()} when new index is committed by this node. Snapshot is
+ * revalidated against index generation marker on access, see
+ * {@link IndexGeneration}, so index committed by other node is reloaded
+ * within generation check interval; concurrent reloads are coalesced.
+ * </p>
+ * @since 1.0
+ */
+public final class SpecsCache {
+
+    /**
+     * Default max size of cached files: 64MB.
+     */
+    private static final long BYTES = 64L * 1024L * 1024L;
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Cached file names.
+     */
+    private final Collection<Key> names;
+
+    /**
+     * Max size of cached files in bytes.
+     */
+    private final long limit;
+
+    /**
+     * Index generation marker.
+     */
+    private final IndexGeneration generation;
+
+    /**
+     * Current snapshot of cached files.
+     */
+    private final AtomicReference<SpecsCache.Snapshot> files;
+
+    /**
+     * Reload of snapshot in progress, null if snapshot is not reloading.
+     */
+    private final AtomicReference<CompletableFuture<SpecsCache.Snapshot>> reload;
+
+    /**
+     * New cache with default size limit.
+     * @param storage Repository storage
+     * @param names Cached file names
+     */
+    public SpecsCache(final Storage storage, final Collection<Key> names) {
+        this(storage, names, new IndexGeneration(storage));
+    }
+
+    /**
+     * New cache with default size limit.
+     * @param storage Repository storage
+     * @param names Cached file names
+     * @param generation Index generation marker
+     */
+    public SpecsCache(final Storage storage, final Collection<Key> names,
+        final IndexGeneration generation) {
+        this(storage, names, SpecsCache.BYTES, generation);
+    }
+
+    /**
+     * New cache.
+     * @param storage Repository storage
+     * @param names Cached file names
+     * @param limit Max size of cached files in bytes
+     */
+    public SpecsCache(final Storage storage, final Collection<Key> names, final long limit) {
+        this(storage, names, limit, new IndexGeneration(storage));
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage Repository storage
+     * @param names Cached file names
+     * @param limit Max size of cached files in bytes
+     * @param generation Index generation marker
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public SpecsCache(final Storage storage, final Collection<Key> names, final long limit,
+        final IndexGeneration generation) {
+        this.storage = storage;
+        this.names = names;
+        this.limit = limit;
+        this.generation = generation;
+        this.files = new AtomicReference<>(
+            new SpecsCache.Snapshot(Optional.empty(), Collections.emptyMap())
+        );
+        this.reload = new AtomicReference<>();
+    }
+
+    /**
+     * Get specs file.
+     * @param name File name
+     * @return Future with read-only file buffer, empty if file doesn't exist
+     */
+    public CompletionStage<Optional<ByteBuffer>> get(final Key name) {
+        return this.file(name).thenApply(file -> file.map(SpecsCache.File::data));
+    }
+
+    /**
+     * Revision of specs file, computed when file is loaded. Modification time
+     * is advanced only when file content is changed.
+     * @param name File name
+     * @return Future with file revision, empty if file doesn't exist
+     */
+    public CompletionStage<Optional<FileRevision>> revision(final Key name) {
+        return this.file(name).thenApply(file -> file.map(SpecsCache.File::revision));
+    }
+
+    /**
+     * Reload all specs files from storage and replace cached snapshot.
+     * @return Completable action
+     */
+    public CompletionStage<Void> refresh() {
+        final List<Key> keys = new ArrayList<>(this.names);
+        final SpecsCache.Snapshot previous = this.files.get();
+        return this.generation.fresh().thenCompose(
+            gen -> {
+                final List<CompletableFuture<Optional<SpecsCache.File>>> loaded = keys.stream()
+                    .map(
+                        key -> this.load(key, IndexGeneration.committed(gen)).thenApply(
+                            file -> file.map(
+                                val -> Optional.ofNullable(previous.files.get(key))
+                                    .map(val::since).orElse(val)
+                            )
+                        ).toCompletableFuture()
+                    ).collect(Collectors.toList());
+                return CompletableFuture.allOf(loaded.toArray(new CompletableFuture<?>[0]))
+                    .thenRun(
+                        () -> {
+                            final Map<Key, SpecsCache.File> snapshot = new HashMap<>();
+                            long total = 0L;
+                            for (int idx = 0; idx < keys.size(); ++idx) {
+                                final Optional<SpecsCache.File> file = loaded.get(idx).join();
+                                if (file.isPresent()
+                                    && total + file.get().size() <= this.limit) {
+                                    total += file.get().size();
+                                    snapshot.put(keys.get(idx), file.get());
+                                }
+                            }
+                            this.files.set(
+                                new SpecsCache.Snapshot(
+                                    Optional.of(gen), Collections.unmodifiableMap(snapshot)
+                                )
+                            );
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Get cached file or load it.
+     * @param name File name
+     * @return Future with file, empty if file doesn't exist
+     */
+    private CompletionStage<Optional<SpecsCache.File>> file(final Key name) {
+        return this.snapshot().thenCompose(
+            snapshot -> {
+                final CompletionStage<Optional<SpecsCache.File>> res;
+                if (snapshot.files.containsKey(name)) {
+                    res = CompletableFuture.completedFuture(
+                        Optional.of(snapshot.files.get(name))
+                    );
+                } else {
+                    res = this.load(
+                        name, snapshot.generation.flatMap(IndexGeneration::committed)
+                    ).thenApply(
+                        file -> {
+                            file.ifPresent(loaded -> this.put(snapshot, name, loaded));
+                            return file;
+                        }
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Snapshot of current index generation, reloaded if generation has changed.
+     * @return Future with snapshot
+     */
+    private CompletionStage<SpecsCache.Snapshot> snapshot() {
+        return this.generation.current().thenCompose(
+            gen -> {
+                final SpecsCache.Snapshot snapshot = this.files.get();
+                final CompletionStage<SpecsCache.Snapshot> res;
+                if (snapshot.generation.equals(Optional.of(gen))) {
+                    res = CompletableFuture.completedFuture(snapshot);
+                } else {
+                    res = this.reloaded();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Reload snapshot, or join reload in progress.
+     * @return Future with reloaded snapshot
+     */
+    private CompletionStage<SpecsCache.Snapshot> reloaded() {
+        final CompletableFuture<SpecsCache.Snapshot> started = new CompletableFuture<>();
+        final CompletionStage<SpecsCache.Snapshot> res;
+        if (this.reload.compareAndSet(null, started)) {
+            this.refresh().whenComplete(
+                (none, err) -> {
+                    this.reload.set(null);
+                    if (err == null) {
+                        started.complete(this.files.get());
+                    } else {
+                        started.completeExceptionally(err);
+                    }
+                }
+            );
+            res = started;
+        } else {
+            final CompletableFuture<SpecsCache.Snapshot> pending = this.reload.get();
+            if (pending == null) {
+                res = CompletableFuture.completedFuture(this.files.get());
+            } else {
+                res = pending;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Load file from storage to read-only direct buffer and compute its revision.
+     * @param name File name
+     * @param time Commit time of index generation
+     * @return Future with file, empty if file doesn't exist
+     */
+    private CompletionStage<Optional<SpecsCache.File>> load(final Key name,
+        final Optional<Instant> time) {
+        return this.storage.exists(name).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<SpecsCache.File>> res;
+                if (exists) {
+                    res = this.storage.value(name)
+                        .thenCompose(content -> new PublisherAs(content).bytes())
+                        .thenCompose(
+                            bytes -> new ContentDigest(
+                                new Content.From(bytes), Digests.SHA256
+                            ).hex().thenApply(
+                                hex -> {
+                                    final ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+                                    buf.put(bytes);
+                                    buf.flip();
+                                    return Optional.of(
+                                        new SpecsCache.File(
+                                            buf.asReadOnlyBuffer(),
+                                            time.map(val -> new FileRevision(hex, val))
+                                                .orElseGet(() -> new FileRevision(hex))
+                                        )
+                                    );
+                                }
+                            )
+                        );
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Add loaded file to cache if snapshot was not replaced while file
+     * was loading and size limit is not exceeded.
+     * @param snapshot Snapshot, used to load the file
+     * @param name File name
+     * @param file Loaded file
+     */
+    private void put(final SpecsCache.Snapshot snapshot, final Key name,
+        final SpecsCache.File file) {
+        final long total = snapshot.files.values().stream()
+            .mapToLong(SpecsCache.File::size).sum();
+        if (total + file.size() <= this.limit) {
+            final Map<Key, SpecsCache.File> next = new HashMap<>(snapshot.files);
+            next.put(name, file);
+            this.files.compareAndSet(
+                snapshot,
+                new SpecsCache.Snapshot(snapshot.generation, Collections.unmodifiableMap(next))
+            );
+        }
+    }
+
+    /**
+     * Cached files of index generation.
+     * @since 1.0
+     */
+    private static final class Snapshot {
+
+        /**
+         * Index generation, empty if it was never read.
+         */
+        private final Optional<String> generation;
+
+        /**
+         * Cached files.
+         */
+        private final Map<Key, SpecsCache.File> files;
+
+        /**
+         * Ctor.
+         * @param generation Index generation
+         * @param files Cached files
+         */
+        Snapshot(final Optional<String> generation, final Map<Key, SpecsCache.File> files) {
+            this.generation = generation;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Cached file.
+     * @since 1.0
+     */
+    private static final class File {
+
+        /**
+         * Read-only file buffer.
+         */
+        private final ByteBuffer buf;
+
+        /**
+         * File revision.
+         */
+        private final FileRevision rev;
+
+        /**
+         * New cached file.
+         * @param buf Read-only file buffer
+         * @param rev File revision
+         */
+        File(final ByteBuffer buf, final FileRevision rev) {
+            this.buf = buf;
+            this.rev = rev;
+        }
+
+        /**
+         * File data, shared with cache.
+         * @return Buffer duplicate
+         */
+        ByteBuffer data() {
+            return this.buf.duplicate();
+        }
+
+        /**
+         * File revision.
+         * @return Revision
+         */
+        FileRevision revision() {
+            return this.rev;
+        }
+
+        /**
+         * Keep revision of previously loaded file if content was not changed.
+         * @param previous Previously loaded file
+         * @return File with revision of previous file or this file
+         */
+        SpecsCache.File since(final SpecsCache.File previous) {
+            final SpecsCache.File res;
+            if (previous.rev.hash().equals(this.rev.hash())) {
+                res = new SpecsCache.File(this.buf, previous.rev);
+            } else {
+                res = this;
+            }
+            return res;
+        }
+
+        /**
+         * File size.
+         * @return Size in bytes
+         */
+        long size() {
+            return this.buf.capacity();
+        }
+    }
+}
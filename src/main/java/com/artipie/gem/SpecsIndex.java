@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Gem specs index: all name tuples of the repository and
+ * derived {@code specs}, {@code latest_specs} and {@code prerelease_specs} lists.
+ * <p>
+ * Lists are computed and sorted the same way as {@code Gem::Indexer} does.
+ * </p>
+ * @since 1.0
+ */
+public final class SpecsIndex {
+
+    /**
+     * Sorted name tuples.
+     */
+    private final NavigableSet<NameTuple> tuples;
+
+    /**
+     * New empty index.
+     */
+    public SpecsIndex() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * New index of tuples.
+     * @param tuples Name tuples
+     */
+    public SpecsIndex(final Collection<NameTuple> tuples) {
+        this.tuples = new TreeSet<>(tuples);
+    }
+
+    /**
+     * Add name tuple to index.
+     * @param tuple Name tuple
+     * @return True if index was changed
+     */
+    public boolean add(final NameTuple tuple) {
+        return this.tuples.add(tuple);
+    }
+
+    /**
+     * Remove name tuple from index.
+     * @param tuple Name tuple
+     * @return True if index was changed
+     */
+    public boolean remove(final NameTuple tuple) {
+        return this.tuples.remove(tuple);
+    }
+
+    /**
+     * All name tuples of the index.
+     * @return Sorted tuples
+     */
+    public List<NameTuple> all() {
+        return Collections.unmodifiableList(new ArrayList<>(this.tuples));
+    }
+
+    /**
+     * Released (non-prerelease) tuples, the content of {@code specs.4.8}.
+     * @return Sorted tuples
+     */
+    public List<NameTuple> released() {
+        return this.tuples.stream()
+            .filter(tuple -> !tuple.version().prerelease())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Prerelease tuples, the content of {@code prerelease_specs.4.8}.
+     * @return Sorted tuples
+     */
+    public List<NameTuple> prerelease() {
+        return this.tuples.stream()
+            .filter(tuple -> tuple.version().prerelease())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Latest released tuples for each name and platform,
+     * the content of {@code latest_specs.4.8}.
+     * <p>
+     * Platform specific gems older than the latest ruby platform
+     * gem with the same name are excluded.
+     * </p>
+     * @return Sorted tuples
+     */
+    public List<NameTuple> latest() {
+        final Map<String, NameTuple> latest = new HashMap<>();
+        final Map<String, GemVersion> ruby = new HashMap<>();
+        for (final NameTuple tuple : this.released()) {
+            latest.put(String.join("\0", tuple.name(), tuple.platform()), tuple);
+            if (NameTuple.RUBY.equals(tuple.platform())) {
+                ruby.put(tuple.name(), tuple.version());
+            }
+        }
+        return latest.values().stream()
+            .filter(
+                tuple -> !ruby.containsKey(tuple.name())
+                    || tuple.version().compareTo(ruby.get(tuple.name())) >= 0
+            ).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Tuples of gem with the given name.
+     * @param name Gem name
+     * @return Sorted tuples
+     */
+    public List<NameTuple> byName(final String name) {
+        return this.tuples.stream()
+            .filter(tuple -> tuple.name().equals(name))
+            .collect(Collectors.toList());
+    }
+}
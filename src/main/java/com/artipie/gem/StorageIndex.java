@@ -0,0 +1,346 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.gem.marshal.MarshalGemSpec;
+import com.artipie.gem.marshal.MarshalSpecs;
+import com.artipie.gem.spec.GemSpec;
+import com.jcabi.log.Logger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * Gem specs index, stored in repository storage.
+ * <p>
+ * Index is updated incrementally: existing {@code specs.4.8} and
+ * {@code prerelease_specs.4.8} files are decoded, new name tuples are inserted,
+ * and only files whose content was changed are written back with gzipped copies.
+ * Quick specs {@code quick/Marshal.4.8/*.gemspec.rz} are written for new gems.
+ * When gem is removed, {@code latest_specs.4.8} entries are recomputed only
+ * for the removed gem name. Full reindex replaces all specs files at once.
+ * </p>
+ * @since 1.0
+ */
+public final class StorageIndex {
+
+    /**
+     * Specs file name.
+     */
+    private static final String SPECS = "specs.4.8";
+
+    /**
+     * Latest specs file name.
+     */
+    private static final String LATEST = "latest_specs.4.8";
+
+    /**
+     * Prerelease specs file name.
+     */
+    private static final String PRERELEASE = "prerelease_specs.4.8";
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New storage index.
+     * @param storage Repository storage
+     */
+    public StorageIndex(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Load specs index from storage.
+     * @return Future with index, empty if index files don't exist
+     */
+    public CompletionStage<SpecsIndex> load() {
+        return this.read(StorageIndex.SPECS).thenCombine(
+            this.read(StorageIndex.PRERELEASE),
+            (released, prerelease) -> {
+                final SpecsIndex index = new SpecsIndex(released.orElse(Collections.emptyList()));
+                prerelease.orElse(Collections.emptyList()).forEach(index::add);
+                return index;
+            }
+        );
+    }
+
+    /**
+     * Add gems to index, gems with invalid name tuples are skipped.
+     * @param gems Specs of gems to add
+     * @return Completion action
+     */
+    public CompletionStage<Void> add(final Collection<GemSpec> gems) {
+        final List<GemSpec> specs = gems.stream()
+            .filter(spec -> StorageIndex.valid(spec.tuple()))
+            .collect(Collectors.toList());
+        return CompletableFuture.allOf(
+            specs.stream().map(this::quick).toArray(CompletableFuture[]::new)
+        ).thenCompose(
+            none -> this.read(StorageIndex.SPECS).thenCombine(
+                this.read(StorageIndex.PRERELEASE),
+                (released, prerelease) -> {
+                    final List<NameTuple> all = new ArrayList<>(
+                        released.orElse(Collections.emptyList())
+                    );
+                    all.addAll(prerelease.orElse(Collections.emptyList()));
+                    final SpecsIndex before = new SpecsIndex(all);
+                    final SpecsIndex after = new SpecsIndex(all);
+                    specs.forEach(spec -> after.add(spec.tuple()));
+                    return CompletableFuture.allOf(
+                        this.write(
+                            StorageIndex.SPECS, released.isPresent(),
+                            before.released(), after.released()
+                        ),
+                        this.write(
+                            StorageIndex.PRERELEASE, prerelease.isPresent(),
+                            before.prerelease(), after.prerelease()
+                        ),
+                        this.storage.exists(new Key.From(StorageIndex.LATEST)).thenCompose(
+                            exists -> this.write(
+                                StorageIndex.LATEST, exists, before.latest(), after.latest()
+                            )
+                        )
+                    );
+                }
+            ).thenCompose(future -> future)
+        );
+    }
+
+    /**
+     * Replace index with the given gems: specs files are written from scratch
+     * and quick specs of gems, which are not in the index, are removed.
+     * Quick specs of the given gems should be written before,
+     * gems with invalid name tuples are skipped.
+     * @param gems Name tuples of all gems
+     * @return Completion action
+     */
+    public CompletionStage<Void> replace(final Collection<NameTuple> gems) {
+        final List<NameTuple> tuples = gems.stream()
+            .filter(StorageIndex::valid)
+            .collect(Collectors.toList());
+        final SpecsIndex index = new SpecsIndex(tuples);
+        final Set<String> quick = tuples.stream()
+            .map(tuple -> GemKeys.quick(tuple).string())
+            .collect(Collectors.toSet());
+        return CompletableFuture.allOf(
+            this.write(
+                StorageIndex.SPECS, false, Collections.emptyList(), index.released()
+            ),
+            this.write(
+                StorageIndex.PRERELEASE, false, Collections.emptyList(), index.prerelease()
+            ),
+            this.write(
+                StorageIndex.LATEST, false, Collections.emptyList(), index.latest()
+            )
+        ).thenCompose(
+            none -> this.storage.list(GemKeys.QUICK)
+        ).thenCompose(
+            keys -> CompletableFuture.allOf(
+                keys.stream()
+                    .filter(key -> !quick.contains(key.string()))
+                    .map(this.storage::delete)
+                    .toArray(CompletableFuture[]::new)
+            )
+        );
+    }
+
+    /**
+     * Remove gem from index.
+     * @param tuple Name tuple of gem to remove
+     * @return Future with true if gem was removed, false if it was not indexed
+     */
+    public CompletionStage<Boolean> remove(final NameTuple tuple) {
+        return this.read(StorageIndex.SPECS).thenCombine(
+            this.read(StorageIndex.PRERELEASE),
+            (released, prerelease) -> {
+                final List<NameTuple> all = new ArrayList<>(
+                    released.orElse(Collections.emptyList())
+                );
+                all.addAll(prerelease.orElse(Collections.emptyList()));
+                final SpecsIndex index = new SpecsIndex(all);
+                final CompletableFuture<Boolean> res;
+                if (index.remove(tuple)) {
+                    res = CompletableFuture.allOf(
+                        this.write(
+                            StorageIndex.SPECS, true,
+                            released.orElse(Collections.emptyList()), index.released()
+                        ),
+                        this.write(
+                            StorageIndex.PRERELEASE, true,
+                            prerelease.orElse(Collections.emptyList()), index.prerelease()
+                        ),
+                        this.latest(tuple.name(), index),
+                        this.dropQuick(tuple)
+                    ).thenApply(none -> true);
+                } else {
+                    res = CompletableFuture.completedFuture(false);
+                }
+                return res;
+            }
+        ).thenCompose(future -> future);
+    }
+
+    /**
+     * Delete quick spec of gem if it exists, quick spec of gem with invalid
+     * name tuple was never written.
+     * @param tuple Gem name tuple
+     * @return Completion action
+     */
+    private CompletableFuture<Void> dropQuick(final NameTuple tuple) {
+        final CompletableFuture<Void> res;
+        if (GemKeys.valid(tuple)) {
+            final Key key = GemKeys.quick(tuple);
+            res = this.storage.exists(key).thenCompose(
+                exists -> {
+                    final CompletableFuture<Void> quick;
+                    if (exists) {
+                        quick = this.storage.delete(key);
+                    } else {
+                        quick = CompletableFuture.allOf();
+                    }
+                    return quick;
+                }
+            );
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Write quick spec of gem.
+     * @param spec Gem spec
+     * @return Completion action
+     */
+    CompletableFuture<Void> quick(final GemSpec spec) {
+        return this.storage.save(
+            GemKeys.quick(spec.tuple()),
+            new Content.From(new Compressed(new MarshalGemSpec().encode(spec)).deflate())
+        );
+    }
+
+    /**
+     * Update latest specs entries of gem with the given name.
+     * @param name Gem name
+     * @param index Index with the gem updated
+     * @return Completion action
+     */
+    private CompletableFuture<Void> latest(final String name, final SpecsIndex index) {
+        return this.read(StorageIndex.LATEST).thenCompose(
+            existing -> {
+                final List<NameTuple> after;
+                if (existing.isPresent()) {
+                    final SpecsIndex latest = new SpecsIndex(existing.get());
+                    existing.get().stream()
+                        .filter(tuple -> tuple.name().equals(name))
+                        .forEach(latest::remove);
+                    new SpecsIndex(index.byName(name)).latest().forEach(latest::add);
+                    after = latest.all();
+                } else {
+                    after = index.latest();
+                }
+                return this.write(
+                    StorageIndex.LATEST, existing.isPresent(),
+                    existing.orElse(Collections.emptyList()), after
+                );
+            }
+        );
+    }
+
+    /**
+     * Write specs file and its gzipped copy if it was changed.
+     * @param name File name
+     * @param exists File exists in storage
+     * @param before Tuples before update
+     * @param after Tuples after update
+     * @return Completion action
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletableFuture<Void> write(final String name, final boolean exists,
+        final List<NameTuple> before, final List<NameTuple> after) {
+        final CompletableFuture<Void> res;
+        if (exists && before.equals(after)) {
+            res = CompletableFuture.allOf();
+        } else {
+            final byte[] data = new MarshalSpecs().encode(after);
+            res = CompletableFuture.allOf(
+                this.storage.save(new Key.From(name), new Content.From(data)),
+                this.storage.save(
+                    new Key.From(String.format("%s.gz", name)),
+                    new Content.From(new Compressed(data).gzip())
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Check name tuple of indexed gem, invalid one is skipped with warning:
+     * keys of index items are built from name tuples.
+     * @param tuple Name tuple
+     * @return True if tuple is valid
+     */
+    private static boolean valid(final NameTuple tuple) {
+        final boolean res = GemKeys.valid(tuple);
+        if (!res) {
+            Logger.warn(StorageIndex.class, "Invalid gem name tuple skipped: %s", tuple);
+        }
+        return res;
+    }
+
+    /**
+     * Read specs file.
+     * @param name File name
+     * @return Future with name tuples, empty if file doesn't exist
+     */
+    private CompletableFuture<Optional<List<NameTuple>>> read(final String name) {
+        final Key key = new Key.From(name);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<List<NameTuple>>> res;
+                if (exists) {
+                    res = this.storage.value(key)
+                        .thenCompose(content -> new PublisherAs(content).bytes())
+                        .thenApply(bytes -> Optional.of(new MarshalSpecs().decode(bytes)));
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+}
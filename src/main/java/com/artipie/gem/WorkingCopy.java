@@ -0,0 +1,361 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.fs.FileStorage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Local working copy of repository gems for Ruby indexer.
+ * <p>
+ * Ruby indexer rebuilds index files from gems of working copy and doesn't read
+ * existing index files, so index files are not copied to working copy: only
+ * their checksums are read from storage, to copy back changed index files
+ * only. Checksums are re-read only when storage index generation differs from
+ * the generation of the working copy; each index commit starts new generation.
+ * Gems are copied to the working copy only for the time of index update, quick
+ * specs of updated gems are copied back to storage with index files.
+ * Temporary working directory is deleted on JVM shutdown. Index files and gems
+ * are fetched by their keys in parallel, missing index files are treated as
+ * empty. Working copy is not thread-safe: it should be used under index lock.
+ * </p>
+ * @since 1.0
+ */
+public final class WorkingCopy {
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index file names.
+     */
+    private final Collection<Key> names;
+
+    /**
+     * Index generation marker.
+     */
+    private final IndexGeneration marker;
+
+    /**
+     * Working directory.
+     */
+    private final Function<Storage, Path> directory;
+
+    /**
+     * Checksums of storage index files, as they were synced or committed.
+     */
+    private final Map<Key, String> synced;
+
+    /**
+     * Working directory, created lazily.
+     */
+    private Path dir;
+
+    /**
+     * Generation of synced checksums, empty if they're not synced.
+     */
+    private Optional<String> generation;
+
+    /**
+     * New working copy in temporary directory.
+     * @param storage Repository storage
+     * @param names Index file names
+     */
+    public WorkingCopy(final Storage storage, final Collection<Key> names) {
+        this(storage, names, new IndexGeneration(storage));
+    }
+
+    /**
+     * New working copy in temporary directory.
+     * @param storage Repository storage
+     * @param names Index file names
+     * @param marker Index generation marker
+     */
+    public WorkingCopy(final Storage storage, final Collection<Key> names,
+        final IndexGeneration marker) {
+        this(
+            storage, names, marker,
+            sto -> {
+                final Path tmp = new UncheckedSupplier<>(
+                    () -> Files.createTempDirectory(WorkingCopy.class.getSimpleName())
+                ).get();
+                Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> FileUtils.deleteQuietly(tmp.toFile()))
+                );
+                return tmp;
+            }
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param storage Repository storage
+     * @param names Index file names
+     * @param directory Working directory factory
+     */
+    WorkingCopy(final Storage storage, final Collection<Key> names,
+        final Function<Storage, Path> directory) {
+        this(storage, names, new IndexGeneration(storage), directory);
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage Repository storage
+     * @param names Index file names
+     * @param marker Index generation marker
+     * @param directory Working directory factory
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WorkingCopy(final Storage storage, final Collection<Key> names,
+        final IndexGeneration marker, final Function<Storage, Path> directory) {
+        this.storage = storage;
+        this.names = names;
+        this.marker = marker;
+        this.directory = directory;
+        this.synced = new ConcurrentHashMap<>();
+        this.generation = Optional.empty();
+    }
+
+    /**
+     * Sync checksums of index files if storage generation has changed and copy
+     * gems to working copy.
+     * @param gems Gem keys
+     * @return Future with working directory
+     */
+    public CompletionStage<Path> checkout(final Collection<Key> gems) {
+        final Path path = this.path();
+        final Storage local = new FileStorage(path);
+        return CompletableFuture.allOf(
+            this.marker.fresh().thenApply(Optional::of).thenCompose(
+                current -> {
+                    final CompletionStage<Void> res;
+                    if (current.equals(this.generation)) {
+                        res = CompletableFuture.allOf();
+                    } else {
+                        this.synced.clear();
+                        res = WorkingCopy.all(
+                            this.names, name -> this.sync(local, name)
+                        ).thenRun(() -> this.generation = current);
+                    }
+                    return res;
+                }
+            ).toCompletableFuture(),
+            WorkingCopy.all(
+                gems,
+                gem -> this.storage.value(gem).thenCompose(content -> local.save(gem, content))
+            ).toCompletableFuture()
+        ).thenApply(none -> path);
+    }
+
+    /**
+     * Copy changed index files and quick specs, written by index update, back
+     * to storage, remove gems and quick specs from working copy and start new
+     * index generation.
+     * @param gems Gem keys
+     * @return Completable action
+     */
+    public CompletionStage<Void> commit(final Collection<Key> gems) {
+        final Storage local = new FileStorage(this.path());
+        return WorkingCopy.all(gems, local::delete).thenCompose(
+            none -> WorkingCopy.all(this.names, name -> this.push(local, name))
+        ).thenCompose(
+            none -> this.quick(
+                local,
+                key -> local.value(key)
+                    .thenCompose(content -> this.storage.save(key, content))
+                    .thenCompose(saved -> local.delete(key))
+            )
+        ).thenCompose(none -> this.marker.next()).thenAccept(
+            next -> this.generation = Optional.of(next)
+        );
+    }
+
+    /**
+     * Remove gems from working copy after failed update; checksums will be
+     * re-synced next time.
+     * @param gems Gem keys
+     * @return Completable action
+     */
+    public CompletionStage<Void> discard(final Collection<Key> gems) {
+        this.generation = Optional.empty();
+        final Storage local = new FileStorage(this.path());
+        return WorkingCopy.all(gems, gem -> WorkingCopy.delete(local, gem)).thenCompose(
+            none -> this.quick(local, local::delete)
+        );
+    }
+
+    /**
+     * Start new index generation after index files were changed in storage
+     * by other means than this working copy.
+     * @return Completable action
+     */
+    public CompletionStage<Void> advance() {
+        return this.marker.next().thenAccept(next -> this.generation = Optional.empty());
+    }
+
+    /**
+     * Sync checksum of index file with storage and remove local index file,
+     * written by previous update.
+     * @param local Local storage
+     * @param name Index file name
+     * @return Completable action
+     */
+    private CompletionStage<Void> sync(final Storage local, final Key name) {
+        return this.storage.value(name)
+            .thenCompose(content -> new ContentDigest(content, Digests.SHA256).hex())
+            .thenApply(Optional::of)
+            .exceptionally(
+                err -> {
+                    Throwable cause = err;
+                    if (cause instanceof CompletionException) {
+                        cause = cause.getCause();
+                    }
+                    if (!(cause instanceof ValueNotFoundException)) {
+                        throw new CompletionException(cause);
+                    }
+                    return Optional.empty();
+                }
+            ).thenCompose(
+                hex -> {
+                    hex.ifPresent(val -> this.synced.put(name, val));
+                    return WorkingCopy.delete(local, name);
+                }
+            );
+    }
+
+    /**
+     * Copy local index file to storage if it was changed.
+     * @param local Local storage
+     * @param name Index file name
+     * @return Completable action
+     */
+    private CompletionStage<Void> push(final Storage local, final Key name) {
+        return local.exists(name).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = local.value(name)
+                        .thenCompose(content -> new ContentDigest(content, Digests.SHA256).hex())
+                        .thenCompose(
+                            hex -> {
+                                final CompletionStage<Void> copy;
+                                if (hex.equals(this.synced.get(name))) {
+                                    copy = CompletableFuture.allOf();
+                                } else {
+                                    copy = local.value(name)
+                                        .thenCompose(content -> this.storage.save(name, content))
+                                        .thenRun(() -> this.synced.put(name, hex));
+                                }
+                                return copy;
+                            }
+                        );
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Perform action for each local quick spec.
+     * @param local Local storage
+     * @param action Action
+     * @return Completable action
+     */
+    private CompletionStage<Void> quick(final Storage local,
+        final Function<Key, CompletionStage<Void>> action) {
+        final CompletionStage<Void> res;
+        if (Files.isDirectory(this.path().resolve(GemKeys.QUICK.string()))) {
+            res = local.list(GemKeys.QUICK).thenCompose(keys -> WorkingCopy.all(keys, action));
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Working directory.
+     * @return Path
+     */
+    private Path path() {
+        synchronized (this.synced) {
+            if (this.dir == null) {
+                this.dir = this.directory.apply(this.storage);
+            }
+            return this.dir;
+        }
+    }
+
+    /**
+     * Delete file from storage if it exists.
+     * @param storage Storage
+     * @param key File key
+     * @return Completable action
+     */
+    private static CompletionStage<Void> delete(final Storage storage, final Key key) {
+        return storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = storage.delete(key);
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Perform action for each key in parallel.
+     * @param keys Keys
+     * @param action Action
+     * @return Completable action
+     */
+    private static CompletionStage<Void> all(final Collection<Key> keys,
+        final Function<Key, CompletionStage<Void>> action) {
+        return CompletableFuture.allOf(
+            keys.stream().map(key -> action.apply(key).toCompletableFuture())
+                .toArray(CompletableFuture<?>[]::new)
+        );
+    }
+}
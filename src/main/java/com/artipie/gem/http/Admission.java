@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control of gem uploads.
+ * <p>
+ * Limits number of pushes in flight, i.e. uploaded but not indexed yet,
+ * and number of bytes being uploaded. Upload, exceeding the limits,
+ * should be rejected and retried by client later. Upload larger than bytes
+ * limit is admitted only when no other uploads are in progress.
+ * </p>
+ * @since 1.0
+ */
+public final class Admission {
+
+    /**
+     * Default max number of pushes in flight.
+     */
+    private static final int PUSHES = 64;
+
+    /**
+     * Default max number of uploaded bytes: 256MB.
+     */
+    private static final long BYTES = 256L * 1024L * 1024L;
+
+    /**
+     * Max number of pushes in flight.
+     */
+    private final int pushes;
+
+    /**
+     * Max number of bytes being uploaded.
+     */
+    private final long bytes;
+
+    /**
+     * Number of pushes in flight, for monitoring.
+     * @return Pushes count
+     */
+    public int inflight() {
+        return this.inflight.get();
+    }
+
+    /**
+     * Number of bytes being uploaded, for monitoring.
+     * @return Bytes count
+     */
+    public long uploading() {
+        return this.uploading.get();
+    }
+
+    /**
+     * Time after which client may retry rejected upload.
+     */
+    private final Duration retry;
+
+    /**
+     * Pushes in flight.
+     */
+    private final AtomicInteger inflight;
+
+    /**
+     * Bytes being uploaded.
+     */
+    private final AtomicLong uploading;
+
+    /**
+     * Admission with default limits.
+     */
+    public Admission() {
+        this(Admission.PUSHES, Admission.BYTES, Duration.ofSeconds(10L));
+    }
+
+    /**
+     * Primary ctor.
+     * @param pushes Max number of pushes in flight
+     * @param bytes Max number of bytes being uploaded
+     * @param retry Time after which client may retry rejected upload
+     */
+    public Admission(final int pushes, final long bytes, final Duration retry) {
+        this.pushes = pushes;
+        this.bytes = bytes;
+        this.retry = retry;
+        this.inflight = new AtomicInteger();
+        this.uploading = new AtomicLong();
+    }
+
+    /**
+     * Try to admit new upload.
+     * @param size Upload size in bytes
+     * @return True if admitted, caller should call {@link #uploaded(long)}
+     *  and {@link #indexed()} when upload and indexing are finished
+     */
+    public boolean admit(final long size) {
+        boolean res = false;
+        if (this.inflight.incrementAndGet() <= this.pushes) {
+            final long total = this.uploading.addAndGet(size);
+            if (total <= this.bytes || total == size) {
+                res = true;
+            } else {
+                this.uploading.addAndGet(-size);
+            }
+        }
+        if (!res) {
+            this.inflight.decrementAndGet();
+        }
+        return res;
+    }
+
+    /**
+     * Release bytes of finished upload.
+     * @param size Upload size in bytes
+     */
+    public void uploaded(final long size) {
+        this.uploading.addAndGet(-size);
+    }
+
+    /**
+     * Release push slot when indexing is finished.
+     */
+    public void indexed() {
+        this.inflight.decrementAndGet();
+    }
+
+    /**
+     * Time after which client may retry rejected upload.
+     * @return Retry delay
+     */
+    public Duration retry() {
+        return this.retry;
+    }
+}
@@ -26,6 +26,7 @@ package com.artipie.gem.http;
 import com.artipie.asto.Storage;
 import com.artipie.gem.Gem;
 import com.artipie.gem.GemMeta;
+import com.artipie.gem.ruby.RuntimePool;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
@@ -65,7 +66,24 @@ public final class ApiGetSlice implements Slice {
      * @param storage Gems storage
      */
     public ApiGetSlice(final Storage storage) {
-        this.sdk = new Gem(storage);
+        this(storage, RuntimePool.SHARED);
+    }
+
+    /**
+     * New slice for handling Get API requests.
+     * @param storage Gems storage
+     * @param ruby Ruby runtimes pool
+     */
+    public ApiGetSlice(final Storage storage, final RuntimePool ruby) {
+        this(new Gem(storage, ruby));
+    }
+
+    /**
+     * New slice for handling Get API requests.
+     * @param sdk Gem SDK
+     */
+    public ApiGetSlice(final Gem sdk) {
+        this.sdk = sdk;
     }
 
     @Override
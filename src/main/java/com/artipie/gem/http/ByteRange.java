@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.http.rq.RqHeaders;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte range of request.
+ * <p>
+ * Partial responses are not supported, so the only range check is whether
+ * the range can be satisfied at all: range with start position beyond
+ * the end of file should be rejected with {@code 416} status,
+ * other ranges are ignored and full file is returned.
+ * </p>
+ * @since 1.0
+ */
+final class ByteRange {
+
+    /**
+     * Range header value pattern.
+     */
+    private static final Pattern RANGE = Pattern.compile("^bytes=(\\d+)-\\d*$");
+
+    /**
+     * Request headers.
+     */
+    private final Iterable<Map.Entry<String, String>> headers;
+
+    /**
+     * New byte range.
+     * @param headers Request headers
+     */
+    ByteRange(final Iterable<Map.Entry<String, String>> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Check if request has a range, which can't be satisfied.
+     * @param size File size
+     * @return True if range start is beyond the end of file, including
+     *  start positions, which don't fit into long
+     */
+    boolean unsatisfiable(final long size) {
+        return new RqHeaders(this.headers, "Range").stream()
+            .map(ByteRange.RANGE::matcher)
+            .filter(Matcher::matches)
+            .anyMatch(
+                range -> new BigInteger(range.group(1)).compareTo(BigInteger.valueOf(size)) >= 0
+            );
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.GemKeys;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.ContentType;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Compact index API slice.
+ * <p>
+ * Handles {@code GET /versions}, {@code GET /names} and {@code GET /info/[GEM NAME]}
+ * requests, see
+ * <a href="https://guides.rubygems.org/rubygems-org-compact-index-api/">Compact
+ * Index API</a>. Info requests with invalid gem name are answered with
+ * {@code 404} status. Partial responses are not supported: range requests
+ * with start position beyond the end of file are rejected with {@code 416}
+ * status, other ranges are ignored and full file is returned with
+ * {@code Accept-Ranges: none} header.
+ * </p>
+ * @since 1.0
+ */
+public final class CompactIndexSlice implements Slice {
+
+    /**
+     * Endpoint path pattern.
+     */
+    public static final Pattern PATH_PATTERN =
+        Pattern.compile("^/(versions|names|info/([\\w.\\-]+))$");
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New compact index slice.
+     * @param storage Repository storage
+     */
+    public CompactIndexSlice(final Storage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Matcher matcher = PATH_PATTERN.matcher(
+            new RequestLineFrom(line).uri().getPath()
+        );
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Invalid routing schema");
+        }
+        final Response res;
+        if (matcher.group(2) == null) {
+            res = this.index(new Key.From(matcher.group(1)), headers);
+        } else if (GemKeys.valid(matcher.group(2))) {
+            res = this.index(GemKeys.info(matcher.group(2)), headers);
+        } else {
+            res = StandardRs.NOT_FOUND;
+        }
+        return res;
+    }
+
+    /**
+     * Response with index file if it exists.
+     * @param key File key
+     * @param headers Request headers
+     * @return Response
+     */
+    private Response index(final Key key, final Iterable<Map.Entry<String, String>> headers) {
+        return new AsyncResponse(
+            this.storage.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Response> res;
+                    if (exists) {
+                        res = this.storage.size(key).thenCompose(
+                            size -> this.file(key, size, headers)
+                        );
+                    } else {
+                        res = CompletableFuture.completedFuture(StandardRs.NOT_FOUND);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Response with index file.
+     * @param key File key
+     * @param size File size
+     * @param headers Request headers
+     * @return Response future
+     */
+    private CompletionStage<Response> file(final Key key, final long size,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final CompletionStage<Response> res;
+        if (new ByteRange(headers).unsatisfiable(size)) {
+            res = CompletableFuture.completedFuture(
+                new RsWithHeaders(
+                    new RsWithStatus(RsStatus.BAD_RANGE),
+                    "Content-Range", String.format("bytes */%d", size)
+                )
+            );
+        } else {
+            res = this.storage.value(key).thenApply(
+                content -> new RsFull(
+                    RsStatus.OK,
+                    new Headers.From(
+                        new ContentType("text/plain; charset=utf-8"),
+                        new Header("Accept-Ranges", "none")
+                    ),
+                    content
+                )
+            );
+        }
+        return res;
+    }
+}
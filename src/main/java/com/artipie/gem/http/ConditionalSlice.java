@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.gem.FileRevision;
+import com.artipie.gem.Gem;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.reactivestreams.Publisher;
+
+/**
+ * Conditional GET slice.
+ * <p>
+ * Adds {@code ETag} and {@code Last-Modified} headers to responses of origin
+ * slice and answers {@code 304 Not Modified} to requests with matching
+ * {@code If-None-Match} or {@code If-Modified-Since} headers. File revisions are
+ * provided by Gem SDK, so unchanged file is not read from storage.
+ * </p>
+ * @since 1.0
+ */
+public final class ConditionalSlice implements Slice {
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * New conditional slice.
+     * @param sdk Gem SDK
+     * @param origin Origin slice
+     */
+    public ConditionalSlice(final Gem sdk, final Slice origin) {
+        this.sdk = sdk;
+        this.origin = origin;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Key key = new Key.From(
+            new RequestLineFrom(line).uri().getPath().replaceAll("^/+", "")
+        );
+        return new AsyncResponse(
+            this.sdk.revision(key).thenApply(
+                rev -> rev.<Response>map(
+                    revision -> {
+                        final Headers tags = ConditionalSlice.tags(revision);
+                        final Response res;
+                        if (ConditionalSlice.fresh(revision, headers)) {
+                            res = new RsWithHeaders(
+                                new RsWithStatus(RsStatus.NOT_MODIFIED), tags
+                            );
+                        } else {
+                            res = new RsWithHeaders(
+                                this.origin.response(line, headers, body), tags
+                            );
+                        }
+                        return res;
+                    }
+                ).orElseGet(() -> this.origin.response(line, headers, body))
+            )
+        );
+    }
+
+    /**
+     * Check if client's copy of the file is fresh.
+     * @param revision File revision
+     * @param headers Request headers
+     * @return True if client's copy matches revision
+     */
+    private static boolean fresh(final FileRevision revision,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final List<String> tags = new RqHeaders(headers, "If-None-Match");
+        final boolean res;
+        if (tags.isEmpty()) {
+            res = revision.modified().flatMap(
+                time -> new RqHeaders(headers, "If-Modified-Since").stream().findFirst()
+                    .flatMap(ConditionalSlice::time)
+                    .map(since -> !time.isAfter(since))
+            ).orElse(false);
+        } else {
+            res = tags.stream()
+                .flatMap(val -> Arrays.stream(val.split(",")))
+                .map(String::trim)
+                .anyMatch(tag -> "*".equals(tag) || revision.etag().equals(tag));
+        }
+        return res;
+    }
+
+    /**
+     * Revision response headers.
+     * @param revision File revision
+     * @return Headers
+     */
+    private static Headers tags(final FileRevision revision) {
+        final List<Map.Entry<String, String>> res = new ArrayList<>(2);
+        res.add(new Header("ETag", revision.etag()));
+        revision.modified().ifPresent(
+            time -> res.add(
+                new Header(
+                    "Last-Modified",
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(time.atZone(ZoneOffset.UTC))
+                )
+            )
+        );
+        return new Headers.From(res);
+    }
+
+    /**
+     * Parse HTTP date.
+     * @param value Header value
+     * @return Time, empty if value is not a valid date
+     */
+    private static Optional<Instant> time(final String value) {
+        Optional<Instant> res;
+        try {
+            res = Optional.of(
+                ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+            );
+        } catch (final DateTimeParseException ex) {
+            res = Optional.empty();
+        }
+        return res;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.gem.Gem;
+import com.artipie.gem.marshal.MarshalDependencies;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.ContentType;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqParams;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+
+/**
+ * Dependencies API slice.
+ * <p>
+ * Handles {@code GET /api/v1/dependencies?gems=[COMMA-DELIMITED GEM NAMES]}
+ * requests and returns Marshal encoded runtime dependencies of all versions
+ * of requested gems, see
+ * <a href="https://guides.rubygems.org/rubygems-org-api/#misc-methods">RubyGems API</a>.
+ * </p>
+ * @since 1.0
+ */
+public final class DependenciesSlice implements Slice {
+
+    /**
+     * Endpoint path.
+     */
+    public static final String PATH = "/api/v1/dependencies";
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * New dependencies slice.
+     * @param sdk Gem SDK
+     */
+    public DependenciesSlice(final Gem sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final List<String> gems = new RqParams(new RequestLineFrom(line).uri())
+            .value("gems")
+            .map(
+                param -> Arrays.stream(param.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .distinct()
+                    .collect(Collectors.toList())
+            ).orElseGet(Collections::emptyList);
+        return new AsyncResponse(
+            this.sdk.dependencies(gems).thenApply(
+                deps -> new RsFull(
+                    RsStatus.OK,
+                    new Headers.From(new ContentType("application/octet-stream")),
+                    new Content.From(new MarshalDependencies().encode(deps))
+                )
+            )
+        );
+    }
+}
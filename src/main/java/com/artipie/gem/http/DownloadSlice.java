@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.ContentFileName;
+import com.artipie.http.headers.ContentLength;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Repository files download slice.
+ * <p>
+ * Handles {@code GET} and {@code HEAD} requests of repository files.
+ * {@code HEAD} is answered from file size, without opening the content.
+ * Partial content is not supported, see {@link ByteRange}:
+ * responses have {@code Accept-Ranges: none} header.
+ * </p>
+ * @since 1.0
+ */
+public final class DownloadSlice implements Slice {
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New download slice.
+     * @param storage Repository storage
+     */
+    public DownloadSlice(final Storage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rqline = new RequestLineFrom(line);
+        final URI uri = rqline.uri();
+        final Key key = new Key.From(uri.getPath().replaceAll("^/+", ""));
+        return new AsyncResponse(
+            this.storage.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Response> res;
+                    if (exists) {
+                        res = this.storage.size(key).thenCompose(
+                            size -> this.file(key, uri, size, rqline.method(), headers)
+                        );
+                    } else {
+                        res = CompletableFuture.completedFuture(StandardRs.NOT_FOUND);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Response with file.
+     * @param key File key
+     * @param uri Request URI
+     * @param size File size
+     * @param method Request method
+     * @param headers Request headers
+     * @return Response future
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Response> file(final Key key, final URI uri, final long size,
+        final RqMethod method, final Iterable<Map.Entry<String, String>> headers) {
+        final Headers common = new Headers.From(
+            new ContentFileName(uri), new Header("Accept-Ranges", "none")
+        );
+        final CompletionStage<Response> res;
+        if (method == RqMethod.HEAD) {
+            res = CompletableFuture.completedFuture(
+                new RsWithHeaders(
+                    new RsWithStatus(RsStatus.OK),
+                    new Headers.From(common, new ContentLength(size))
+                )
+            );
+        } else if (new ByteRange(headers).unsatisfiable(size)) {
+            res = CompletableFuture.completedFuture(
+                new RsWithHeaders(
+                    new RsWithStatus(RsStatus.BAD_RANGE),
+                    "Content-Range", String.format("bytes */%d", size)
+                )
+            );
+        } else {
+            res = this.storage.value(key).thenApply(
+                content -> new RsFull(RsStatus.OK, common, content)
+            );
+        }
+        return res;
+    }
+}
@@ -24,7 +24,10 @@
 package com.artipie.gem.http;
 
 import com.artipie.asto.Storage;
+import com.artipie.gem.CachedAuthentication;
+import com.artipie.gem.Gem;
 import com.artipie.gem.GemApiKeyAuth;
+import com.artipie.gem.ruby.RuntimePool;
 import com.artipie.http.Slice;
 import com.artipie.http.auth.Action;
 import com.artipie.http.auth.AuthSlice;
@@ -38,7 +41,6 @@ import com.artipie.http.rt.ByMethodsRule;
 import com.artipie.http.rt.RtRule;
 import com.artipie.http.rt.RtRulePath;
 import com.artipie.http.rt.SliceRoute;
-import com.artipie.http.slice.SliceDownload;
 import com.artipie.http.slice.SliceSimple;
 import java.util.Optional;
 
@@ -70,11 +72,86 @@ public final class GemSlice extends Slice.Wrap {
      *
      * @param storage The storage.
      * @param permissions The permissions.
-     * @param auth The auth.
+     * @param auth The auth, wrap it with {@link CachedAuthentication}
+     *  to cache authentication results.
      */
     public GemSlice(final Storage storage,
         final Permissions permissions,
         final Authentication auth) {
+        this(storage, permissions, auth, RuntimePool.SHARED);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param ruby Ruby runtimes pool, may be shared by many repositories.
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final RuntimePool ruby) {
+        this(storage, permissions, auth, ruby, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param ruby Ruby runtimes pool, may be shared by many repositories.
+     * @param async Accept pushed gems before indexing, see {@link SubmitGemSlice}.
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final RuntimePool ruby,
+        final boolean async) {
+        this(storage, permissions, auth, ruby, async, new Admission());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param ruby Ruby runtimes pool, may be shared by many repositories.
+     * @param async Accept pushed gems before indexing, see {@link SubmitGemSlice}.
+     * @param admission Admission control of uploads.
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final RuntimePool ruby,
+        final boolean async,
+        final Admission admission) {
+        this(storage, permissions, auth, new Gem(storage, ruby), async, admission);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Gems, left unindexed by previous process, are not recovered by the slice:
+     * the host should call {@link Gem#recover()} of the SDK once on start.
+     * </p>
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param sdk Gem SDK, shared by API slices.
+     * @param async Accept pushed gems before indexing.
+     * @param admission Admission control of uploads.
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final Gem sdk,
+        final boolean async,
+        final Admission admission) {
         super(
             new SliceRoute(
                 new RtRulePath(
@@ -83,11 +160,22 @@ public final class GemSlice extends Slice.Wrap {
                         new RtRule.ByPath("/api/v1/gems")
                     ),
                     new AuthSlice(
-                        new SubmitGemSlice(storage),
+                        new SubmitGemSlice(storage, sdk, async, admission),
                         new GemApiKeyAuth(auth),
                         new Permission.ByName(permissions, Action.Standard.WRITE)
                     )
                 ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.DELETE),
+                        new RtRule.ByPath(YankSlice.PATH)
+                    ),
+                    new AuthSlice(
+                        new YankSlice(sdk),
+                        new GemApiKeyAuth(auth),
+                        new Permission.ByName(permissions, Action.Standard.DELETE)
+                    )
+                ),
                 new RtRulePath(
                     new RtRule.All(
                         new ByMethodsRule(RqMethod.GET),
@@ -95,17 +183,61 @@ public final class GemSlice extends Slice.Wrap {
                     ),
                     new ApiKeySlice(auth)
                 ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(PushStatusSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new PushStatusSlice(sdk),
+                        new GemApiKeyAuth(auth),
+                        new Permission.ByName(permissions, Action.Standard.WRITE)
+                    )
+                ),
                 new RtRulePath(
                     new RtRule.All(
                         new ByMethodsRule(RqMethod.GET),
                         new RtRule.ByPath(ApiGetSlice.PATH_PATTERN)
                     ),
-                    new ApiGetSlice(storage)
+                    new ApiGetSlice(sdk)
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(DependenciesSlice.PATH)
+                    ),
+                    new AuthSlice(
+                        new DependenciesSlice(sdk),
+                        new GemApiKeyAuth(auth),
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(CompactIndexSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new CompactIndexSlice(storage),
+                        new GemApiKeyAuth(auth),
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(SpecsSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new ConditionalSlice(sdk, new SpecsSlice(sdk)),
+                        new GemApiKeyAuth(auth),
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
                 ),
                 new RtRulePath(
-                    new ByMethodsRule(RqMethod.GET),
+                    new ByMethodsRule(RqMethod.GET, RqMethod.HEAD),
                     new AuthSlice(
-                        new SliceDownload(storage),
+                        new ConditionalSlice(sdk, new DownloadSlice(storage)),
                         new GemApiKeyAuth(auth),
                         new Permission.ByName(permissions, Action.Standard.READ)
                     )
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.gem.Gem;
+import com.artipie.gem.GemKeys;
+import com.artipie.gem.Pushes;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.common.RsJson;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.reactivestreams.Publisher;
+
+/**
+ * Push status slice.
+ * <p>
+ * Handles {@code GET /api/v1/pushes/[PUSH ID]} requests and returns JSON with
+ * push status: {@code queued}, {@code indexing}, {@code published}
+ * or {@code failed}. Push id is a full name of pushed gem, e.g.
+ * {@code rails-6.0.2.2}, it's returned by {@link SubmitGemSlice}
+ * in asynchronous mode.
+ * </p>
+ * @since 1.0
+ */
+public final class PushStatusSlice implements Slice {
+
+    /**
+     * Endpoint path pattern.
+     */
+    public static final Pattern PATH_PATTERN = Pattern.compile("/api/v1/pushes/([\\w.\\-]+)");
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * New push status slice.
+     * @param sdk Gem SDK
+     */
+    public PushStatusSlice(final Gem sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Matcher matcher = PushStatusSlice.PATH_PATTERN.matcher(
+            new RequestLineFrom(line).uri().getPath()
+        );
+        final Response res;
+        if (matcher.matches() && GemKeys.valid(matcher.group(1))) {
+            final String id = matcher.group(1);
+            res = this.sdk.status(GemKeys.gem(id)).<Response>map(
+                status -> new RsJson(() -> PushStatusSlice.json(id, status), StandardCharsets.UTF_8)
+            ).orElseGet(() -> new RsWithStatus(RsStatus.NOT_FOUND));
+        } else {
+            res = new RsWithStatus(RsStatus.NOT_FOUND);
+        }
+        return res;
+    }
+
+    /**
+     * Push status JSON.
+     * @param id Push id
+     * @param status Push status
+     * @return JSON object
+     */
+    static JsonObject json(final String id, final Pushes.Status status) {
+        return Json.createObjectBuilder()
+            .add("id", id)
+            .add("status", status.toString())
+            .build();
+    }
+}
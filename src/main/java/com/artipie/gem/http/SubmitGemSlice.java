@@ -23,26 +23,62 @@
  */
 package com.artipie.gem.http;
 
+import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.gem.Gem;
+import com.artipie.gem.GemKeys;
+import com.artipie.gem.NameTuple;
+import com.artipie.gem.Pushes;
+import com.artipie.gem.ruby.RuntimePool;
+import com.artipie.gem.spec.GemUpload;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.Location;
+import com.artipie.http.rq.RqHeaders;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithHeaders;
 import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.common.RsJson;
 import com.artipie.http.slice.ContentWithSize;
+import com.jcabi.log.Logger;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Map.Entry;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 import org.reactivestreams.Publisher;
 
 /**
  * A slice, which servers gem packages.
+ * <p>
+ * Uploaded gem is staged while its specification and checksum are read
+ * from the upload stream, then it's stored under canonical
+ * {@code gems/NAME-VERSION[-PLATFORM].gem} key, the checksum is stored
+ * alongside the gem. Re-push of identical gem
+ * is answered with {@code 200 OK} without reindexing if the gem is indexed;
+ * identical gem, which failed indexing before, is indexed again. Re-push
+ * of the same gem version with different content is rejected with
+ * {@code 409 Conflict}. Staged uploads, abandoned by crashed process,
+ * are removed by {@link Gem#recover()}.
+ * Gem is published under index lock, see {@link Gem#publish(Key, Key, String)}.
+ * </p>
  * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class SubmitGemSlice implements Slice {
 
+    /**
+     * Valid content length header value.
+     */
+    private static final Pattern LENGTH = Pattern.compile("\\d{1,18}");
+
     /**
      * Repository storage.
      */
@@ -53,27 +89,273 @@ public final class SubmitGemSlice implements Slice {
      */
     private final Gem gem;
 
+    /**
+     * Asynchronous mode: respond before the gem is indexed.
+     */
+    private final boolean async;
+
+    /**
+     * Admission control of uploads.
+     */
+    private final Admission admission;
+
     /**
      * Ctor.
      *
      * @param storage The storage.
      */
     public SubmitGemSlice(final Storage storage) {
+        this(storage, RuntimePool.SHARED);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param ruby Ruby runtimes pool.
+     */
+    public SubmitGemSlice(final Storage storage, final RuntimePool ruby) {
+        this(storage, new Gem(storage, ruby));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param gem Gem SDK.
+     */
+    public SubmitGemSlice(final Storage storage, final Gem gem) {
+        this(storage, gem, false);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * In asynchronous mode the slice responds with {@code 202 Accepted}
+     * as soon as the gem is saved to storage, the gem is indexed in background.
+     * Response contains push id and {@code Location} of push status resource,
+     * see {@link PushStatusSlice}.
+     * </p>
+     *
+     * @param storage The storage.
+     * @param gem Gem SDK.
+     * @param async Asynchronous mode.
+     */
+    public SubmitGemSlice(final Storage storage, final Gem gem, final boolean async) {
+        this(storage, gem, async, new Admission());
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Uploads, exceeding admission limits, are rejected with
+     * {@code 503 Service Unavailable} and {@code Retry-After} header. Uploads
+     * without {@code Content-Length} header can't be admitted, they're rejected
+     * with {@code 411 Length Required}, uploads with malformed header are
+     * rejected with {@code 400 Bad Request}.
+     * </p>
+     *
+     * @param storage The storage.
+     * @param gem Gem SDK.
+     * @param async Asynchronous mode.
+     * @param admission Admission control of uploads.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public SubmitGemSlice(final Storage storage, final Gem gem, final boolean async,
+        final Admission admission) {
         this.storage = storage;
-        this.gem = new Gem(storage);
+        this.gem = gem;
+        this.async = async;
+        this.admission = admission;
     }
 
     @Override
     public Response response(final String line, final Iterable<Entry<String, String>> headers,
         final Publisher<ByteBuffer> body) {
-        final Key key = new Key.From(
-            "gems", UUID.randomUUID().toString().replace("-", "").concat(".gem")
+        final Optional<String> length = new RqHeaders(headers, "content-length").stream()
+            .findFirst().map(String::trim);
+        final Response res;
+        if (!length.isPresent()) {
+            res = new RsWithStatus(RsStatus.LENGTH_REQUIRED);
+        } else if (!SubmitGemSlice.LENGTH.matcher(length.get()).matches()) {
+            res = new RsWithBody(
+                new RsWithStatus(RsStatus.BAD_REQUEST), "Invalid Content-Length",
+                StandardCharsets.UTF_8
+            );
+        } else if (this.admission.admit(Long.parseLong(length.get()))) {
+            res = new AsyncResponse(this.push(Long.parseLong(length.get()), headers, body));
+        } else {
+            res = new RsWithHeaders(
+                new RsWithStatus(RsStatus.UNAVAILABLE),
+                "Retry-After", String.valueOf(this.admission.retry().getSeconds())
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Save admitted gem under its canonical name and index it.
+     * @param size Upload size
+     * @param headers Request headers
+     * @param body Request body
+     * @return Future with response
+     */
+    private CompletionStage<Response> push(final long size,
+        final Iterable<Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final Key staged = GemKeys.upload(Instant.now());
+        final GemUpload upload = new GemUpload(body);
+        final AtomicBoolean released = new AtomicBoolean();
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                this.admission.indexed();
+            }
+        };
+        return this.storage.save(staged, new ContentWithSize(upload.content(), headers))
+            .whenComplete((none, err) -> this.admission.uploaded(size))
+            .thenCompose(none -> this.publish(upload, staged, release))
+            .whenComplete(
+                (rsp, err) -> {
+                    if (err != null) {
+                        release.run();
+                        this.storage.delete(staged).exceptionally(ignored -> null);
+                    }
+                }
+            );
+    }
+
+    /**
+     * Publish staged gem: move it to canonical key and index it,
+     * or drop it if the same version of the gem already exists.
+     * Gem with invalid name or metadata is rejected with {@code 400 Bad Request}.
+     * @param upload Consumed gem upload
+     * @param staged Staged gem key
+     * @param release Release of admission push slot
+     * @return Future with response
+     */
+    private CompletionStage<Response> publish(final GemUpload upload, final Key staged,
+        final Runnable release) {
+        CompletionStage<Response> res;
+        try {
+            final NameTuple tuple = upload.spec().tuple();
+            if (GemKeys.valid(tuple)) {
+                res = this.publish(upload, tuple, staged, release);
+            } else {
+                res = this.reject(
+                    staged, release, String.format("Invalid gem name: %s", tuple)
+                );
+            }
+        } catch (final ArtipieIOException err) {
+            res = this.reject(
+                staged, release, String.format("Invalid gem metadata: %s", err.getMessage())
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Publish staged gem with valid name tuple.
+     * @param upload Consumed gem upload
+     * @param tuple Gem name tuple
+     * @param staged Staged gem key
+     * @param release Release of admission push slot
+     * @return Future with response
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Response> publish(final GemUpload upload, final NameTuple tuple,
+        final Key staged, final Runnable release) {
+        final String id = tuple.fullName();
+        final Key key = GemKeys.gem(tuple);
+        return this.gem.publish(staged, key, upload.sha256()).thenCompose(
+            rev -> {
+                final CompletionStage<Response> res;
+                if (!rev.isPresent()) {
+                    res = this.respond(id, key, release);
+                } else if (rev.get().hash().equals(upload.sha256())) {
+                    res = this.storage.delete(staged).thenCompose(
+                        none -> this.gem.indexed(tuple)
+                    ).thenCompose(
+                        indexed -> {
+                            final CompletionStage<Response> rsp;
+                            if (indexed) {
+                                release.run();
+                                rsp = CompletableFuture.completedFuture(
+                                    new RsWithStatus(RsStatus.OK)
+                                );
+                            } else {
+                                rsp = this.respond(id, key, release);
+                            }
+                            return rsp;
+                        }
+                    );
+                } else {
+                    release.run();
+                    res = this.storage.delete(staged).thenApply(
+                        none -> new RsWithStatus(RsStatus.CONFLICT)
+                    );
+                }
+                return res;
+            }
         );
-        return new AsyncResponse(
-            this.storage.save(
-                key, new ContentWithSize(body, headers)
-            ).thenCompose(none -> this.gem.update(key))
-                .thenApply(none -> new RsWithStatus(RsStatus.CREATED))
+    }
+
+    /**
+     * Reject staged gem with {@code 400 Bad Request}.
+     * @param staged Staged gem key
+     * @param release Release of admission push slot
+     * @param reason Rejection reason
+     * @return Future with response
+     */
+    private CompletionStage<Response> reject(final Key staged, final Runnable release,
+        final String reason) {
+        release.run();
+        return this.storage.delete(staged).thenApply(
+            none -> new RsWithBody(
+                new RsWithStatus(RsStatus.BAD_REQUEST), reason, StandardCharsets.UTF_8
+            )
         );
     }
+
+    /**
+     * Index published gem and respond: in asynchronous mode respond
+     * immediately, in synchronous mode when the gem is indexed.
+     * @param id Push id
+     * @param key Gem key
+     * @param release Release of admission push slot
+     * @return Future with response
+     */
+    private CompletionStage<Response> respond(final String id, final Key key,
+        final Runnable release) {
+        final CompletionStage<Response> res;
+        if (this.async) {
+            this.index(key, release).exceptionally(
+                err -> {
+                    Logger.error(this, "Failed to index %s: %[exception]s", key, err);
+                    return null;
+                }
+            );
+            res = CompletableFuture.completedFuture(
+                new RsWithHeaders(
+                    new RsJson(
+                        RsStatus.ACCEPTED,
+                        () -> PushStatusSlice.json(id, Pushes.Status.QUEUED),
+                        StandardCharsets.UTF_8
+                    ),
+                    new Location(String.format("/api/v1/pushes/%s", id))
+                )
+            );
+        } else {
+            res = this.index(key, release).thenApply(none -> new RsWithStatus(RsStatus.CREATED));
+        }
+        return res;
+    }
+
+    /**
+     * Index saved gem and release admission push slot.
+     * @param key Gem key
+     * @param release Release of admission push slot
+     * @return Completable action
+     */
+    private CompletionStage<Void> index(final Key key, final Runnable release) {
+        return this.gem.update(key).whenComplete((none, err) -> release.run());
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.gem.Gem;
+import com.artipie.gem.NameTuple;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqParams;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Yank slice.
+ * <p>
+ * Handles {@code DELETE /api/v1/gems/yank} requests with {@code gem_name},
+ * {@code version} and optional {@code platform} parameters, passed in
+ * query string or URL-encoded form body, see
+ * <a href="https://guides.rubygems.org/rubygems-org-api">RubyGems API</a>.
+ * Gem version is removed from repository indexes incrementally
+ * and its package is deleted.
+ * </p>
+ * @since 1.0
+ */
+public final class YankSlice implements Slice {
+
+    /**
+     * Endpoint path.
+     */
+    public static final String PATH = "/api/v1/gems/yank";
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * New yank slice.
+     * @param sdk Gem SDK
+     */
+    public YankSlice(final Gem sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RqParams query = new RqParams(new RequestLineFrom(line).uri());
+        return new AsyncResponse(
+            new PublisherAs(new Content.From(body)).string(StandardCharsets.UTF_8).thenCompose(
+                form -> {
+                    final RqParams params = new RqParams(form);
+                    final Optional<String> name = YankSlice.param("gem_name", params, query);
+                    final Optional<String> version = YankSlice.param("version", params, query);
+                    final CompletionStage<Response> res;
+                    if (name.isPresent() && version.isPresent()) {
+                        res = this.yank(
+                            new NameTuple(
+                                name.get(), version.get(),
+                                YankSlice.param("platform", params, query)
+                                    .orElse(NameTuple.RUBY)
+                            )
+                        );
+                    } else {
+                        res = CompletableFuture.completedFuture(
+                            new RsWithStatus(RsStatus.BAD_REQUEST)
+                        );
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Yank gem version.
+     * @param tuple Gem name tuple
+     * @return Future with response
+     */
+    private CompletionStage<Response> yank(final NameTuple tuple) {
+        return this.sdk.yank(tuple).thenApply(
+            yanked -> {
+                final Response res;
+                if (yanked) {
+                    res = new RsWithBody(
+                        String.format(
+                            "Successfully deleted gem: %s (%s)", tuple.name(), tuple.version()
+                        ),
+                        StandardCharsets.UTF_8
+                    );
+                } else {
+                    res = new RsWithBody(
+                        new RsWithStatus(RsStatus.NOT_FOUND),
+                        "The version of gem could not be found",
+                        StandardCharsets.UTF_8
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Request parameter from form body or query string.
+     * @param name Parameter name
+     * @param form Form body parameters
+     * @param query Query string parameters
+     * @return Parameter value if present
+     */
+    private static Optional<String> param(final String name, final RqParams form,
+        final RqParams query) {
+        final Optional<String> res;
+        if (form.value(name).isPresent()) {
+            res = form.value(name);
+        } else {
+            res = query.value(name);
+        }
+        return res;
+    }
+}
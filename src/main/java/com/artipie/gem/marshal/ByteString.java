@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Ruby string which is not UTF-8 encoded:
+ * binary string, US-ASCII string or string with explicit encoding name.
+ * <p>
+ * UTF-8 strings are represented with plain {@link String}.
+ * </p>
+ * @since 1.0
+ */
+public final class ByteString {
+
+    /**
+     * US-ASCII encoding name.
+     */
+    public static final String ASCII = "US-ASCII";
+
+    /**
+     * String bytes.
+     */
+    private final byte[] data;
+
+    /**
+     * Encoding name, empty for binary strings.
+     */
+    private final String enc;
+
+    /**
+     * New binary string.
+     * @param data Bytes
+     */
+    public ByteString(final byte[] data) {
+        this(data, "");
+    }
+
+    /**
+     * New string with encoding.
+     * @param data Bytes
+     * @param enc Encoding name, empty for binary strings
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public ByteString(final byte[] data, final String enc) {
+        this.data = data;
+        this.enc = enc;
+    }
+
+    /**
+     * String bytes.
+     * @return Bytes
+     */
+    public byte[] bytes() {
+        return Arrays.copyOf(this.data, this.data.length);
+    }
+
+    /**
+     * Encoding name.
+     * @return Encoding name, empty for binary strings
+     */
+    public String encoding() {
+        return this.enc;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        final boolean res;
+        if (this == other) {
+            res = true;
+        } else if (other instanceof ByteString) {
+            final ByteString str = (ByteString) other;
+            res = Arrays.equals(this.data, str.data) && this.enc.equals(str.enc);
+        } else {
+            res = false;
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.data);
+    }
+
+    @Override
+    public String toString() {
+        final Charset charset;
+        if (this.enc.isEmpty()) {
+            charset = StandardCharsets.ISO_8859_1;
+        } else {
+            charset = Charset.forName(this.enc);
+        }
+        return new String(this.data, charset);
+    }
+}
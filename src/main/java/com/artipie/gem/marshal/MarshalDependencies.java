@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.gem.NameTuple;
+import com.artipie.gem.spec.GemDependency;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Marshal codec of {@code /api/v1/dependencies} response: array of hashes
+ * with {@code :name}, {@code :number}, {@code :platform} and {@code :dependencies}
+ * keys, where dependencies are {@code [name, requirement]} pairs.
+ * @since 1.0
+ */
+public final class MarshalDependencies {
+
+    /**
+     * Encode dependencies.
+     * @param gems Runtime dependencies of gem versions
+     * @return Marshal data
+     */
+    public byte[] encode(final Map<NameTuple, List<GemDependency>> gems) {
+        final List<Object> res = new ArrayList<>(gems.size());
+        gems.forEach(
+            (tuple, deps) -> {
+                final Map<Object, Object> gem = new LinkedHashMap<>();
+                gem.put(new Symbol("name"), tuple.name());
+                gem.put(new Symbol("number"), tuple.version().toString());
+                gem.put(new Symbol("platform"), tuple.platform());
+                gem.put(
+                    new Symbol("dependencies"),
+                    deps.stream().map(
+                        dep -> Arrays.asList(dep.name(), String.join(", ", dep.requirements()))
+                    ).collect(Collectors.toList())
+                );
+                res.add(gem);
+            }
+        );
+        return new MarshalWriter().write(res);
+    }
+}
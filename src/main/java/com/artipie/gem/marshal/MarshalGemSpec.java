@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.gem.NameTuple;
+import com.artipie.gem.spec.GemDependency;
+import com.artipie.gem.spec.GemSpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Marshal codec of {@code Gem::Specification}, as stored in
+ * {@code quick/Marshal.4.8/*.gemspec.rz} files.
+ * <p>
+ * Specification is written with the same fields as
+ * {@code Gem::Specification#_dump} writes for abbreviated specs.
+ * </p>
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class MarshalGemSpec {
+
+    /**
+     * Spec date pattern.
+     */
+    private static final Pattern DATE = Pattern.compile(
+        "^(\\d{4})-(\\d{2})-(\\d{2})(?:[ T](\\d{2}):(\\d{2}):(\\d{2}))?.*"
+    );
+
+    /**
+     * Gem requirement class name.
+     */
+    private static final String REQUIREMENT = "Gem::Requirement";
+
+    /**
+     * Encode gem specification.
+     * @param spec Gem spec
+     * @return Marshal data
+     */
+    public byte[] encode(final GemSpec spec) {
+        final String platform = spec.platform();
+        final List<Object> fields = new ArrayList<>(19);
+        fields.add(MarshalGemSpec.orDefault(spec.string("rubygems_version"), "2.7.0"));
+        fields.add(Integer.parseInt(MarshalGemSpec.orDefault(
+            spec.string("specification_version"), "4"
+        )));
+        fields.add(spec.name());
+        fields.add(MarshalSpecs.toMarshal(spec.version().toString()));
+        fields.add(MarshalGemSpec.time(spec.string("date")));
+        fields.add(spec.summary());
+        fields.add(MarshalGemSpec.requirement(spec.requiredRubyVersion()));
+        fields.add(MarshalGemSpec.requirement(spec.requiredRubygemsVersion()));
+        fields.add(platform);
+        final List<Object> deps = new ArrayList<>(spec.dependencies().size());
+        for (final GemDependency dep : spec.dependencies()) {
+            deps.add(MarshalGemSpec.dependency(dep));
+        }
+        fields.add(deps);
+        fields.add("");
+        final List<String> email = spec.strings("email");
+        if (email.size() == 1) {
+            fields.add(email.get(0));
+        } else if (email.isEmpty()) {
+            fields.add(null);
+        } else {
+            fields.add(new ArrayList<Object>(email));
+        }
+        fields.add(new ArrayList<Object>(spec.authors()));
+        fields.add(spec.description());
+        fields.add(spec.homepage());
+        fields.add(Boolean.TRUE);
+        if (NameTuple.RUBY.equals(platform)) {
+            fields.add(platform);
+        } else {
+            fields.add(MarshalGemSpec.platform(platform));
+        }
+        fields.add(new ArrayList<Object>(spec.licenses()));
+        fields.add(new LinkedHashMap<Object, Object>(spec.metadata()));
+        return new MarshalWriter().write(
+            new UserDump("Gem::Specification", new MarshalWriter().write(fields))
+        );
+    }
+
+    /**
+     * Marshal representation of {@code Gem::Dependency}.
+     * @param dep Dependency
+     * @return Object
+     */
+    private static PlainObject dependency(final GemDependency dep) {
+        final UserMarshal req = MarshalGemSpec.requirement(dep.requirements());
+        final Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("@name", dep.name());
+        vars.put("@requirement", req);
+        vars.put("@type", new Symbol(dep.type()));
+        vars.put("@prerelease", Boolean.FALSE);
+        vars.put("@version_requirements", req);
+        return new PlainObject("Gem::Dependency", vars);
+    }
+
+    /**
+     * Marshal representation of {@code Gem::Requirement}.
+     * @param reqs Requirements, e.g. {@code >= 1.0}
+     * @return Object
+     */
+    private static UserMarshal requirement(final List<String> reqs) {
+        final List<Object> pairs = new ArrayList<>(reqs.size());
+        for (final String req : reqs) {
+            final String[] parts = req.trim().split("\\s+", 2);
+            final List<Object> pair;
+            if (parts.length == 2) {
+                pair = Arrays.asList(parts[0], MarshalSpecs.toMarshal(parts[1]));
+            } else {
+                pair = Arrays.asList("=", MarshalSpecs.toMarshal(parts[0]));
+            }
+            pairs.add(new ArrayList<>(pair));
+        }
+        return new UserMarshal(
+            MarshalGemSpec.REQUIREMENT, new ArrayList<Object>(Collections.singletonList(pairs))
+        );
+    }
+
+    /**
+     * Marshal representation of {@code Gem::Platform}.
+     * @param platform Platform name, e.g. {@code x86_64-linux}
+     * @return Object
+     */
+    private static PlainObject platform(final String platform) {
+        final String[] parts = platform.split("-", 3);
+        final Map<String, Object> vars = new LinkedHashMap<>();
+        if (parts.length == 1) {
+            vars.put("@cpu", null);
+            vars.put("@os", parts[0]);
+        } else {
+            vars.put("@cpu", parts[0]);
+            vars.put("@os", parts[1]);
+        }
+        if (parts.length == 3) {
+            vars.put("@version", parts[2]);
+        } else {
+            vars.put("@version", null);
+        }
+        return new PlainObject("Gem::Platform", vars);
+    }
+
+    /**
+     * Marshal representation of UTC {@code Time}, dumped with {@code Time#_dump}.
+     * @param date Spec date string, e.g. {@code 2019-12-10 00:00:00.000000000 Z}
+     * @return Object
+     * @checkstyle MagicNumberCheck (40 lines)
+     */
+    private static UserDump time(final String date) {
+        final Matcher matcher = MarshalGemSpec.DATE.matcher(date);
+        final int[] fields = new int[6];
+        if (matcher.matches()) {
+            for (int idx = 0; idx < fields.length; ++idx) {
+                final String grp = matcher.group(idx + 1);
+                if (grp != null) {
+                    fields[idx] = Integer.parseInt(grp);
+                }
+            }
+        } else {
+            final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            fields[0] = today.getYear();
+            fields[1] = today.getMonthValue();
+            fields[2] = today.getDayOfMonth();
+        }
+        final ByteBuffer buf = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(
+            1 << 31 | 1 << 30 | fields[0] - 1900 << 14 | fields[1] - 1 << 10
+                | fields[2] << 5 | fields[3]
+        );
+        buf.putInt(fields[4] << 26 | fields[5] << 20);
+        return new UserDump(
+            "Time", buf.array(),
+            Collections.singletonMap(
+                "zone", new ByteString("UTC".getBytes(StandardCharsets.US_ASCII), ByteString.ASCII)
+            )
+        );
+    }
+
+    /**
+     * String value or default if empty.
+     * @param value Value
+     * @param def Default value
+     * @return Value or default
+     */
+    private static String orDefault(final String value, final String def) {
+        final String res;
+        if (value.isEmpty()) {
+            res = def;
+        } else {
+            res = value;
+        }
+        return res;
+    }
+}
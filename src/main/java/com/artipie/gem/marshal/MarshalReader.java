@@ -0,0 +1,381 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.asto.ArtipieIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ruby Marshal 4.8 format reader.
+ * <p>
+ * Values are decoded to Java objects: {@code nil} to {@code null}, booleans to
+ * {@link Boolean}, fixnums to {@link Long}, floats to {@link Double}, UTF-8 strings
+ * to {@link String}, other strings to {@link ByteString}, arrays to {@link List},
+ * hashes to {@link Map}, symbols to {@link Symbol} and objects to {@link PlainObject},
+ * {@link UserMarshal} or {@link UserDump}.
+ * </p>
+ * @since 1.0
+ * @checkstyle CyclomaticComplexityCheck (500 lines)
+ */
+public final class MarshalReader {
+
+    /**
+     * Input buffer.
+     */
+    private final ByteBuffer input;
+
+    /**
+     * Symbols table.
+     */
+    private final List<Symbol> symbols;
+
+    /**
+     * Objects table.
+     */
+    private final List<Object> objects;
+
+    /**
+     * New reader.
+     * @param bytes Marshal data
+     */
+    public MarshalReader(final byte[] bytes) {
+        this.input = ByteBuffer.wrap(bytes);
+        this.symbols = new ArrayList<>(16);
+        this.objects = new ArrayList<>(16);
+    }
+
+    /**
+     * Read marshalled value.
+     * @return Decoded value
+     */
+    public Object read() {
+        try {
+            final int major = this.input.get();
+            final int minor = this.input.get();
+            if (major != 4 || minor > 8) {
+                throw new ArtipieIOException(
+                    String.format("Unsupported marshal version %d.%d", major, minor)
+                );
+            }
+            return this.value();
+        } catch (final BufferUnderflowException err) {
+            throw new ArtipieIOException("Unexpected end of marshal data");
+        }
+    }
+
+    /**
+     * Read next value.
+     * @return Value
+     * @checkstyle ExecutableStatementCountCheck (100 lines)
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private Object value() {
+        final char type = (char) this.input.get();
+        final Object res;
+        switch (type) {
+            case '0':
+                res = null;
+                break;
+            case 'T':
+                res = Boolean.TRUE;
+                break;
+            case 'F':
+                res = Boolean.FALSE;
+                break;
+            case 'i':
+                res = this.fixnum();
+                break;
+            case ':':
+            case ';':
+                res = this.symbol(type);
+                break;
+            case '@':
+                res = this.objects.get((int) this.fixnum());
+                break;
+            case 'I':
+                res = this.withVariables();
+                break;
+            case '"':
+                res = this.register(new ByteString(this.bytes()));
+                break;
+            case 'f':
+                res = this.register(this.decimal());
+                break;
+            case 'l':
+                res = this.register(this.bignum());
+                break;
+            case '[':
+                res = this.array();
+                break;
+            case '{':
+            case '}':
+                res = this.hash(type == '}');
+                break;
+            case 'o':
+                res = this.object();
+                break;
+            case 'U':
+                res = this.userMarshal();
+                break;
+            case 'u':
+                res = this.register(
+                    new UserDump(this.symbol((char) this.input.get()).name(), this.bytes())
+                );
+                break;
+            default:
+                throw new ArtipieIOException(
+                    String.format("Unsupported marshal type '%c'", type)
+                );
+        }
+        return res;
+    }
+
+    /**
+     * Read value with instance variables: string with encoding,
+     * symbol with encoding or user dumped object.
+     * @return Value
+     */
+    private Object withVariables() {
+        final char type = (char) this.input.get();
+        final Object res;
+        if (type == '"') {
+            final int idx = this.objects.size();
+            this.objects.add(null);
+            final byte[] bytes = this.bytes();
+            final Map<String, Object> vars = this.variables();
+            if (Boolean.TRUE.equals(vars.get("E"))) {
+                res = new String(bytes, StandardCharsets.UTF_8);
+            } else if (Boolean.FALSE.equals(vars.get("E"))) {
+                res = new ByteString(bytes, ByteString.ASCII);
+            } else if (vars.containsKey("encoding")) {
+                res = new ByteString(bytes, vars.get("encoding").toString());
+            } else {
+                res = new ByteString(bytes);
+            }
+            this.objects.set(idx, res);
+        } else if (type == 'u') {
+            final String cls = this.symbol((char) this.input.get()).name();
+            final byte[] bytes = this.bytes();
+            res = this.register(new UserDump(cls, bytes, this.variables()));
+        } else if (type == ':') {
+            res = this.symbol(type);
+            this.variables();
+        } else {
+            this.input.position(this.input.position() - 1);
+            res = this.value();
+            this.variables();
+        }
+        return res;
+    }
+
+    /**
+     * Read array.
+     * @return List
+     */
+    private List<Object> array() {
+        final int size = (int) this.fixnum();
+        final List<Object> res = new ArrayList<>(size);
+        this.register(res);
+        for (int idx = 0; idx < size; ++idx) {
+            res.add(this.value());
+        }
+        return res;
+    }
+
+    /**
+     * Read hash.
+     * @param defaults Hash has default value
+     * @return Map
+     */
+    private Map<Object, Object> hash(final boolean defaults) {
+        final int size = (int) this.fixnum();
+        final Map<Object, Object> res = new LinkedHashMap<>();
+        this.register(res);
+        for (int idx = 0; idx < size; ++idx) {
+            res.put(this.value(), this.value());
+        }
+        if (defaults) {
+            this.value();
+        }
+        return res;
+    }
+
+    /**
+     * Read object with instance variables.
+     * @return Object
+     */
+    private PlainObject object() {
+        final String cls = this.symbol((char) this.input.get()).name();
+        final int idx = this.objects.size();
+        this.objects.add(null);
+        final PlainObject res = new PlainObject(cls, this.variables());
+        this.objects.set(idx, res);
+        return res;
+    }
+
+    /**
+     * Read object dumped with {@code marshal_dump}.
+     * @return User marshal object
+     */
+    private UserMarshal userMarshal() {
+        final String cls = this.symbol((char) this.input.get()).name();
+        final int idx = this.objects.size();
+        this.objects.add(null);
+        final UserMarshal res = new UserMarshal(cls, this.value());
+        this.objects.set(idx, res);
+        return res;
+    }
+
+    /**
+     * Read instance variables.
+     * @return Variables by name
+     */
+    private Map<String, Object> variables() {
+        final int size = (int) this.fixnum();
+        final Map<String, Object> res = new LinkedHashMap<>();
+        for (int idx = 0; idx < size; ++idx) {
+            final String name = this.symbol((char) this.input.get()).name();
+            res.put(name, this.value());
+        }
+        return res;
+    }
+
+    /**
+     * Read symbol or symbol link.
+     * @param type Type byte
+     * @return Symbol
+     */
+    private Symbol symbol(final char type) {
+        final Symbol res;
+        if (type == ':') {
+            res = new Symbol(new String(this.bytes(), StandardCharsets.UTF_8));
+            this.symbols.add(res);
+        } else if (type == ';') {
+            res = this.symbols.get((int) this.fixnum());
+        } else if (type == 'I') {
+            res = this.symbol((char) this.input.get());
+            this.variables();
+        } else {
+            throw new ArtipieIOException(
+                String.format("Symbol expected but got '%c'", type)
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Read float.
+     * @return Double
+     */
+    private Double decimal() {
+        final String str = new String(this.bytes(), StandardCharsets.US_ASCII);
+        final Double res;
+        if ("inf".equals(str)) {
+            res = Double.POSITIVE_INFINITY;
+        } else if ("-inf".equals(str)) {
+            res = Double.NEGATIVE_INFINITY;
+        } else if ("nan".equals(str)) {
+            res = Double.NaN;
+        } else {
+            res = Double.valueOf(str);
+        }
+        return res;
+    }
+
+    /**
+     * Read bignum.
+     * @return Long value
+     */
+    private Long bignum() {
+        final char sign = (char) this.input.get();
+        final int len = (int) this.fixnum() * 2;
+        if (len > Long.BYTES) {
+            throw new ArtipieIOException("Bignum is too large");
+        }
+        long res = 0;
+        for (int idx = 0; idx < len; ++idx) {
+            res |= (long) (this.input.get() & 0xff) << 8 * idx;
+        }
+        if (sign == '-') {
+            res = -res;
+        }
+        return res;
+    }
+
+    /**
+     * Read byte sequence with length prefix.
+     * @return Bytes
+     */
+    private byte[] bytes() {
+        final byte[] res = new byte[(int) this.fixnum()];
+        this.input.get(res);
+        return res;
+    }
+
+    /**
+     * Read fixnum.
+     * @return Long value
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private long fixnum() {
+        final int head = this.input.get();
+        long res;
+        if (head == 0) {
+            res = 0;
+        } else if (head > 4) {
+            res = head - 5;
+        } else if (head < -4) {
+            res = head + 5;
+        } else if (head > 0) {
+            res = 0;
+            for (int idx = 0; idx < head; ++idx) {
+                res |= (long) (this.input.get() & 0xff) << 8 * idx;
+            }
+        } else {
+            res = -1;
+            for (int idx = 0; idx < -head; ++idx) {
+                res &= ~(0xffL << 8 * idx);
+                res |= (long) (this.input.get() & 0xff) << 8 * idx;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Register object in objects table.
+     * @param obj Object
+     * @param <T> Object type
+     * @return Same object
+     */
+    private <T> T register(final T obj) {
+        this.objects.add(obj);
+        return obj;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.gem.NameTuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marshal codec of {@code specs.4.8} index files: array of
+ * {@code [name, Gem::Version, platform]} tuples.
+ * <p>
+ * Encoding is compatible with {@code Gem::Indexer#compact_specs}: equal names, versions
+ * and platforms are written once and then referenced by object links.
+ * </p>
+ * @since 1.0
+ */
+public final class MarshalSpecs {
+
+    /**
+     * Gem version class name.
+     */
+    static final String VERSION = "Gem::Version";
+
+    /**
+     * Decode specs file.
+     * @param bytes Marshal data
+     * @return Name tuples
+     */
+    public List<NameTuple> decode(final byte[] bytes) {
+        final Object root = new MarshalReader(bytes).read();
+        if (!(root instanceof List)) {
+            throw new ArtipieIOException("Specs array expected");
+        }
+        final List<?> items = (List<?>) root;
+        final List<NameTuple> res = new ArrayList<>(items.size());
+        for (final Object item : items) {
+            if (!(item instanceof List) || ((List<?>) item).size() != 3) {
+                throw new ArtipieIOException("Specs tuple expected");
+            }
+            final List<?> tuple = (List<?>) item;
+            res.add(
+                new NameTuple(
+                    tuple.get(0).toString(),
+                    MarshalSpecs.fromMarshal(tuple.get(1)),
+                    tuple.get(2).toString()
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Encode specs file.
+     * @param tuples Name tuples
+     * @return Marshal data
+     */
+    public byte[] encode(final List<NameTuple> tuples) {
+        final Map<String, String> names = new HashMap<>();
+        final Map<String, UserMarshal> versions = new HashMap<>();
+        final Map<String, String> platforms = new HashMap<>();
+        final List<Object> items = new ArrayList<>(tuples.size());
+        for (final NameTuple tuple : tuples) {
+            items.add(
+                Arrays.asList(
+                    names.computeIfAbsent(tuple.name(), String::new),
+                    versions.computeIfAbsent(
+                        tuple.version().toString(), MarshalSpecs::toMarshal
+                    ),
+                    platforms.computeIfAbsent(tuple.platform(), String::new)
+                )
+            );
+        }
+        return new MarshalWriter().write(items);
+    }
+
+    /**
+     * Marshal representation of gem version.
+     * @param version Version string
+     * @return User marshal object
+     */
+    static UserMarshal toMarshal(final String version) {
+        return new UserMarshal(
+            MarshalSpecs.VERSION, new ArrayList<Object>(Arrays.asList(version))
+        );
+    }
+
+    /**
+     * Gem version string from marshal representation.
+     * @param value Marshal value
+     * @return Version string
+     */
+    static String fromMarshal(final Object value) {
+        if (!(value instanceof UserMarshal)
+            || !MarshalSpecs.VERSION.equals(((UserMarshal) value).className())
+            || !(((UserMarshal) value).data() instanceof List)) {
+            throw new ArtipieIOException("Gem::Version expected");
+        }
+        return ((List<?>) ((UserMarshal) value).data()).get(0).toString();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ruby Marshal 4.8 format writer.
+ * <p>
+ * Accepts the same Java types as {@link MarshalReader} produces, except floats
+ * and bignums. Same object instances are written as object links, the same way
+ * Ruby does it for the same object references.
+ * </p>
+ * @since 1.0
+ * @checkstyle CyclomaticComplexityCheck (500 lines)
+ */
+public final class MarshalWriter {
+
+    /**
+     * Max fixnum value.
+     */
+    private static final long MAX_FIXNUM = (1L << 30) - 1;
+
+    /**
+     * Output buffer.
+     */
+    private final ByteArrayOutputStream out;
+
+    /**
+     * Symbols table.
+     */
+    private final Map<String, Integer> symbols;
+
+    /**
+     * Objects table.
+     */
+    private final Map<Object, Integer> objects;
+
+    /**
+     * New writer.
+     */
+    public MarshalWriter() {
+        this.out = new ByteArrayOutputStream();
+        this.symbols = new HashMap<>();
+        this.objects = new IdentityHashMap<>();
+    }
+
+    /**
+     * Write value to marshal format.
+     * @param value Value to write
+     * @return Marshal data
+     */
+    public byte[] write(final Object value) {
+        this.out.reset();
+        this.symbols.clear();
+        this.objects.clear();
+        this.out.write(4);
+        this.out.write(8);
+        this.value(value);
+        return this.out.toByteArray();
+    }
+
+    /**
+     * Write value.
+     * @param value Value
+     * @checkstyle ExecutableStatementCountCheck (100 lines)
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private void value(final Object value) {
+        if (value == null) {
+            this.out.write('0');
+        } else if (Boolean.TRUE.equals(value)) {
+            this.out.write('T');
+        } else if (Boolean.FALSE.equals(value)) {
+            this.out.write('F');
+        } else if (value instanceof Integer || value instanceof Long) {
+            final long num = ((Number) value).longValue();
+            if (num > MarshalWriter.MAX_FIXNUM || num < -MarshalWriter.MAX_FIXNUM - 1) {
+                throw new IllegalArgumentException(
+                    String.format("Number %d is too large for fixnum", num)
+                );
+            }
+            this.out.write('i');
+            this.fixnum(num);
+        } else if (value instanceof Symbol) {
+            this.symbol(((Symbol) value).name());
+        } else if (this.objects.containsKey(value)) {
+            this.out.write('@');
+            this.fixnum(this.objects.get(value));
+        } else if (value instanceof String) {
+            this.register(value);
+            this.out.write('I');
+            this.out.write('"');
+            this.bytes(((String) value).getBytes(StandardCharsets.UTF_8));
+            this.fixnum(1);
+            this.symbol("E");
+            this.out.write('T');
+        } else if (value instanceof ByteString) {
+            this.string((ByteString) value);
+        } else if (value instanceof List) {
+            this.register(value);
+            this.out.write('[');
+            this.fixnum(((List<?>) value).size());
+            for (final Object item : (List<?>) value) {
+                this.value(item);
+            }
+        } else if (value instanceof Map) {
+            this.register(value);
+            this.out.write('{');
+            this.fixnum(((Map<?, ?>) value).size());
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                this.value(entry.getKey());
+                this.value(entry.getValue());
+            }
+        } else if (value instanceof PlainObject) {
+            this.register(value);
+            this.out.write('o');
+            this.symbol(((PlainObject) value).className());
+            this.variables(((PlainObject) value).variables());
+        } else if (value instanceof UserMarshal) {
+            this.register(value);
+            this.out.write('U');
+            this.symbol(((UserMarshal) value).className());
+            this.value(((UserMarshal) value).data());
+        } else if (value instanceof UserDump) {
+            this.userDump((UserDump) value);
+        } else {
+            throw new IllegalArgumentException(
+                String.format("Unsupported marshal value type %s", value.getClass())
+            );
+        }
+    }
+
+    /**
+     * Write non UTF-8 string.
+     * @param str String
+     */
+    private void string(final ByteString str) {
+        this.register(str);
+        if (str.encoding().isEmpty()) {
+            this.out.write('"');
+            this.bytes(str.bytes());
+        } else {
+            this.out.write('I');
+            this.out.write('"');
+            this.bytes(str.bytes());
+            this.fixnum(1);
+            if (ByteString.ASCII.equals(str.encoding())) {
+                this.symbol("E");
+                this.out.write('F');
+            } else {
+                this.symbol("encoding");
+                this.value(new ByteString(str.encoding().getBytes(StandardCharsets.US_ASCII)));
+            }
+        }
+    }
+
+    /**
+     * Write object dumped with {@code _dump}.
+     * Such object is registered after its data, as Ruby does.
+     * @param dump User dump object
+     */
+    private void userDump(final UserDump dump) {
+        final Map<String, Object> vars = dump.variables();
+        if (!vars.isEmpty()) {
+            this.out.write('I');
+        }
+        this.out.write('u');
+        this.symbol(dump.className());
+        this.bytes(dump.data());
+        if (!vars.isEmpty()) {
+            this.variables(vars);
+        }
+        this.register(dump);
+    }
+
+    /**
+     * Write instance variables.
+     * @param vars Variables by name
+     */
+    private void variables(final Map<String, Object> vars) {
+        this.fixnum(vars.size());
+        for (final Map.Entry<String, Object> entry : vars.entrySet()) {
+            this.symbol(entry.getKey());
+            this.value(entry.getValue());
+        }
+    }
+
+    /**
+     * Write symbol or symbol link.
+     * @param name Symbol name
+     */
+    private void symbol(final String name) {
+        final Integer idx = this.symbols.get(name);
+        if (idx == null) {
+            this.symbols.put(name, this.symbols.size());
+            final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            final boolean ascii = bytes.length == name.length();
+            if (!ascii) {
+                this.out.write('I');
+            }
+            this.out.write(':');
+            this.bytes(bytes);
+            if (!ascii) {
+                this.variables(Collections.singletonMap("E", Boolean.TRUE));
+            }
+        } else {
+            this.out.write(';');
+            this.fixnum(idx);
+        }
+    }
+
+    /**
+     * Write byte sequence with length prefix.
+     * @param bytes Bytes
+     */
+    private void bytes(final byte[] bytes) {
+        this.fixnum(bytes.length);
+        this.out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Write fixnum.
+     * @param num Number
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private void fixnum(final long num) {
+        if (num == 0) {
+            this.out.write(0);
+        } else if (num > 0 && num < 123) {
+            this.out.write((int) num + 5);
+        } else if (num < 0 && num > -124) {
+            this.out.write((int) (num - 5) & 0xff);
+        } else {
+            final byte[] buf = new byte[Integer.BYTES];
+            long rest = num;
+            int len = 0;
+            while (len < Integer.BYTES) {
+                buf[len] = (byte) (rest & 0xff);
+                rest >>= 8;
+                len += 1;
+                if (rest == 0 && num > 0 || rest == -1 && num < 0) {
+                    break;
+                }
+            }
+            if (num > 0) {
+                this.out.write(len);
+            } else {
+                this.out.write(-len & 0xff);
+            }
+            this.out.write(buf, 0, len);
+        }
+    }
+
+    /**
+     * Register object in objects table.
+     * @param obj Object
+     */
+    private void register(final Object obj) {
+        this.objects.put(obj, this.objects.size());
+    }
+}
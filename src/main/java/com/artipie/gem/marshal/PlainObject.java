@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ruby object dumped with its instance variables
+ * (Marshal {@code 'o'} type).
+ * @since 1.0
+ */
+public final class PlainObject {
+
+    /**
+     * Class name.
+     */
+    private final String cls;
+
+    /**
+     * Instance variables by name, including {@code @} prefix.
+     */
+    private final Map<String, Object> vars;
+
+    /**
+     * New object.
+     * @param cls Class name
+     * @param vars Instance variables by name, including {@code @} prefix
+     */
+    public PlainObject(final String cls, final Map<String, Object> vars) {
+        this.cls = cls;
+        this.vars = Collections.unmodifiableMap(new LinkedHashMap<>(vars));
+    }
+
+    /**
+     * Class name.
+     * @return Name
+     */
+    public String className() {
+        return this.cls;
+    }
+
+    /**
+     * Instance variables.
+     * @return Variables by name, including {@code @} prefix
+     */
+    public Map<String, Object> variables() {
+        return this.vars;
+    }
+
+    /**
+     * Instance variable value.
+     * @param name Variable name without {@code @} prefix
+     * @return Value or null
+     */
+    public Object variable(final String name) {
+        return this.vars.get(String.format("@%s", name));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#<%s %s>", this.cls, this.vars);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ruby object dumped with {@code _dump} method
+ * (Marshal {@code 'u'} type), e.g. {@code Time} or {@code Gem::Specification}.
+ * @since 1.0
+ */
+public final class UserDump {
+
+    /**
+     * Class name.
+     */
+    private final String cls;
+
+    /**
+     * Dumped bytes.
+     */
+    private final byte[] dump;
+
+    /**
+     * Instance variables of dumped string.
+     */
+    private final Map<String, Object> vars;
+
+    /**
+     * New user dump object without variables.
+     * @param cls Class name
+     * @param dump Dumped bytes
+     */
+    public UserDump(final String cls, final byte[] dump) {
+        this(cls, dump, Collections.emptyMap());
+    }
+
+    /**
+     * New user dump object.
+     * @param cls Class name
+     * @param dump Dumped bytes
+     * @param vars Instance variables of dumped string
+     */
+    public UserDump(final String cls, final byte[] dump, final Map<String, Object> vars) {
+        this.cls = cls;
+        this.dump = Arrays.copyOf(dump, dump.length);
+        this.vars = Collections.unmodifiableMap(new LinkedHashMap<>(vars));
+    }
+
+    /**
+     * Class name.
+     * @return Name
+     */
+    public String className() {
+        return this.cls;
+    }
+
+    /**
+     * Dumped bytes.
+     * @return Bytes
+     */
+    public byte[] data() {
+        return Arrays.copyOf(this.dump, this.dump.length);
+    }
+
+    /**
+     * Instance variables of dumped string.
+     * @return Variables by name
+     */
+    public Map<String, Object> variables() {
+        return this.vars;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#<%s %d bytes>", this.cls, this.dump.length);
+    }
+}
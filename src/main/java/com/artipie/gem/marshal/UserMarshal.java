@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+/**
+ * Ruby object dumped with {@code marshal_dump} method
+ * (Marshal {@code 'U'} type), e.g. {@code Gem::Version}.
+ * @since 1.0
+ */
+public final class UserMarshal {
+
+    /**
+     * Class name.
+     */
+    private final String cls;
+
+    /**
+     * Dumped data.
+     */
+    private final Object dump;
+
+    /**
+     * New user marshal object.
+     * @param cls Class name
+     * @param dump Dumped data
+     */
+    public UserMarshal(final String cls, final Object dump) {
+        this.cls = cls;
+        this.dump = dump;
+    }
+
+    /**
+     * Class name.
+     * @return Name
+     */
+    public String className() {
+        return this.cls;
+    }
+
+    /**
+     * Dumped data.
+     * @return Data object
+     */
+    public Object data() {
+        return this.dump;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#<%s %s>", this.cls, this.dump);
+    }
+}
@@ -27,8 +27,6 @@ package com.artipie.gem.ruby;
 import com.artipie.gem.GemIndex;
 import java.nio.file.Path;
 import org.jruby.Ruby;
-import org.jruby.RubyRuntimeAdapter;
-import org.jruby.javasupport.JavaEmbedUtils;
 
 /**
  * Ruby runtime gem index implementation.
@@ -52,14 +50,6 @@ public final class RubyGemIndex implements GemIndex {
 
     @Override
     public void update(final Path path) {
-        final RubyRuntimeAdapter adapter = JavaEmbedUtils.newRuntimeAdapter();
-        adapter.eval(this.ruby, "require 'rubygems/indexer.rb'");
-        adapter.eval(
-            this.ruby,
-            String.format(
-                "Gem::Indexer.new('%s', {build_modern:true}).generate_index",
-                path.toAbsolutePath().toString()
-            )
-        );
+        new RubyScript(this.ruby).call("index", path.toAbsolutePath().toString());
     }
 }
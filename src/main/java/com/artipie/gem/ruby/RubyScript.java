@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.commons.io.IOUtils;
+import org.jruby.Ruby;
+import org.jruby.RubyModule;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * Gem adapter ruby script: entry points of {@code ArtipieGem} module
+ * from {@code artipie_gem.rb}.
+ * <p>
+ * Script and required rubygems libraries are loaded to runtime once, then
+ * entry points are called with arguments, without parsing any ruby code.
+ * </p>
+ * @since 1.0
+ */
+final class RubyScript {
+
+    /**
+     * Script resource name.
+     */
+    private static final String SCRIPT = "/artipie_gem.rb";
+
+    /**
+     * Script module name.
+     */
+    private static final String MODULE = "ArtipieGem";
+
+    /**
+     * Ruby runtime.
+     */
+    private final Ruby ruby;
+
+    /**
+     * New script for runtime.
+     * @param ruby Ruby runtime
+     */
+    RubyScript(final Ruby ruby) {
+        this.ruby = ruby;
+    }
+
+    /**
+     * Load script to runtime if it was not loaded yet.
+     * @return Script module
+     */
+    RubyModule load() {
+        synchronized (this.ruby) {
+            RubyModule module = this.ruby.getModule(RubyScript.MODULE);
+            if (module == null) {
+                try (InputStream src = RubyScript.class.getResourceAsStream(RubyScript.SCRIPT)) {
+                    this.ruby.evalScriptlet(IOUtils.toString(src, StandardCharsets.UTF_8));
+                } catch (final IOException err) {
+                    throw new ArtipieIOException(err);
+                }
+                module = this.ruby.getModule(RubyScript.MODULE);
+            }
+            return module;
+        }
+    }
+
+    /**
+     * Call script entry point.
+     * @param method Entry point name
+     * @param args String arguments
+     * @return Result
+     */
+    IRubyObject call(final String method, final String... args) {
+        return this.load().callMethod(
+            this.ruby.getCurrentContext(), method,
+            Arrays.stream(args).map(this.ruby::newString).toArray(IRubyObject[]::new)
+        );
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.jruby.Ruby;
+import org.jruby.javasupport.JavaEmbedUtils;
+
+/**
+ * Pool of ruby runtimes with dedicated executor.
+ * <p>
+ * Ruby functions are executed by fixed number of threads, each execution
+ * leases one of pool runtimes, so up to pool size functions are interpreted
+ * in parallel and blocking interpreter work never runs in common fork-join pool.
+ * Runtimes are created on demand or warmed up in background on pool creation,
+ * gem adapter script with rubygems libraries is loaded to each runtime once.
+ * Functions, waiting for a free runtime, are queued in bounded queue,
+ * when it's full new functions are rejected.
+ * </p>
+ * <p>
+ * One pool can serve any number of repositories, so the number of
+ * interpreters doesn't grow with the number of repositories.
+ * </p>
+ * @since 1.0
+ */
+public final class RuntimePool {
+
+    /**
+     * Process-wide pool, shared by all repositories by default.
+     */
+    public static final RuntimePool SHARED = new RuntimePool();
+
+    /**
+     * Default queue capacity.
+     */
+    private static final int QUEUE = 100;
+
+    /**
+     * Ruby runtime factory.
+     */
+    private final Supplier<Ruby> factory;
+
+    /**
+     * Max number of runtimes.
+     */
+    private final int size;
+
+    /**
+     * Number of created runtimes.
+     */
+    private final AtomicInteger created;
+
+    /**
+     * Idle runtimes.
+     */
+    private final BlockingQueue<Ruby> idle;
+
+    /**
+     * Executor of ruby functions.
+     */
+    private final ThreadPoolExecutor exec;
+
+    /**
+     * Total time of functions waiting in queue in nanoseconds.
+     */
+    private final LongAdder waited;
+
+    /**
+     * Number of started functions.
+     */
+    private final LongAdder started;
+
+    /**
+     * New pool with number of runtimes equal to available processors,
+     * one runtime is warmed up in background.
+     */
+    public RuntimePool() {
+        this(Runtime.getRuntime().availableProcessors(), RuntimePool.QUEUE, 1);
+    }
+
+    /**
+     * New pool of default ruby runtimes with gem adapter script loaded.
+     * @param size Number of runtimes
+     * @param queue Capacity of queue of waiting functions
+     * @param warm Number of runtimes to warm up in background
+     */
+    public RuntimePool(final int size, final int queue, final int warm) {
+        this(
+            () -> {
+                final Ruby ruby = JavaEmbedUtils.initialize(Collections.emptyList());
+                new RubyScript(ruby).load();
+                return ruby;
+            },
+            size, queue, warm
+        );
+    }
+
+    /**
+     * New pool with specified runtime factory, created runtimes lazily.
+     * @param factory Runtime factory
+     * @param size Number of runtimes
+     * @param queue Capacity of queue of waiting functions
+     */
+    public RuntimePool(final Supplier<Ruby> factory, final int size, final int queue) {
+        this(factory, size, queue, 0);
+    }
+
+    /**
+     * Primary ctor.
+     * @param factory Runtime factory
+     * @param size Number of runtimes
+     * @param queue Capacity of queue of waiting functions
+     * @param warm Number of runtimes to warm up in background
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public RuntimePool(final Supplier<Ruby> factory, final int size, final int queue,
+        final int warm) {
+        this.factory = factory;
+        this.size = size;
+        this.created = new AtomicInteger();
+        this.idle = new LinkedBlockingQueue<>();
+        final AtomicInteger num = new AtomicInteger();
+        this.exec = new ThreadPoolExecutor(
+            size, size, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue),
+            runnable -> {
+                final Thread thread = new Thread(
+                    runnable, String.format("gem-ruby-%d", num.incrementAndGet())
+                );
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.waited = new LongAdder();
+        this.started = new LongAdder();
+        for (int cnt = 0; cnt < Math.min(warm, size); ++cnt) {
+            this.exec.execute(this::warmup);
+        }
+    }
+
+    /**
+     * Apply ruby runtime to function async.
+     * @param applier Function to apply
+     * @param <T> Apply function result type
+     * @return Future with result of the function, failed with
+     *  {@link RejectedExecutionException} if pool queue is full
+     */
+    public <T> CompletionStage<T> apply(final Function<Ruby, T> applier) {
+        final long submitted = System.nanoTime();
+        CompletableFuture<T> res;
+        try {
+            res = CompletableFuture.supplyAsync(
+                () -> {
+                    this.waited.add(System.nanoTime() - submitted);
+                    this.started.increment();
+                    final Ruby ruby = this.lease();
+                    try {
+                        return applier.apply(ruby);
+                    } finally {
+                        this.idle.offer(ruby);
+                    }
+                },
+                this.exec
+            );
+        } catch (final RejectedExecutionException err) {
+            res = new CompletableFuture<>();
+            res.completeExceptionally(err);
+        }
+        return res;
+    }
+
+    /**
+     * Number of created runtimes.
+     * @return Runtimes count
+     */
+    public int runtimes() {
+        return this.created.get();
+    }
+
+    /**
+     * Number of functions waiting for a free runtime.
+     * @return Queue depth
+     */
+    public int queued() {
+        return this.exec.getQueue().size();
+    }
+
+    /**
+     * Average time of functions waiting for a free runtime.
+     * @return Average wait time
+     */
+    public Duration averageWait() {
+        final long count = this.started.sum();
+        final Duration res;
+        if (count == 0) {
+            res = Duration.ZERO;
+        } else {
+            res = Duration.ofNanos(this.waited.sum() / count);
+        }
+        return res;
+    }
+
+    /**
+     * Lease idle runtime, create new one if pool is not full,
+     * or wait for a runtime to be released.
+     * @return Ruby runtime
+     */
+    private Ruby lease() {
+        Ruby ruby = this.idle.poll();
+        if (ruby == null) {
+            if (this.created.incrementAndGet() <= this.size) {
+                ruby = this.create();
+            } else {
+                this.created.decrementAndGet();
+                try {
+                    ruby = this.idle.take();
+                } catch (final InterruptedException err) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(err);
+                }
+            }
+        }
+        return ruby;
+    }
+
+    /**
+     * Create new runtime and put it to idle runtimes if pool is not full.
+     */
+    private void warmup() {
+        if (this.created.incrementAndGet() <= this.size) {
+            this.idle.offer(this.create());
+        } else {
+            this.created.decrementAndGet();
+        }
+    }
+
+    /**
+     * Create new runtime, created runtimes counter should be incremented before.
+     * @return Ruby runtime
+     */
+    private Ruby create() {
+        try {
+            return this.factory.get();
+        } catch (final RuntimeException err) {
+            this.created.decrementAndGet();
+            throw err;
+        }
+    }
+}
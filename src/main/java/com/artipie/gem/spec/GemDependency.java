@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Gem dependency.
+ * @since 1.0
+ */
+public final class GemDependency {
+
+    /**
+     * Dependency name.
+     */
+    private final String nme;
+
+    /**
+     * Dependency type, {@code runtime} or {@code development}.
+     */
+    private final String tpe;
+
+    /**
+     * Version requirements, e.g. {@code >= 1.0}.
+     */
+    private final List<String> reqs;
+
+    /**
+     * New dependency.
+     * @param name Dependency name
+     * @param type Dependency type, {@code runtime} or {@code development}
+     * @param requirements Version requirements, e.g. {@code >= 1.0}
+     */
+    public GemDependency(final String name, final String type, final List<String> requirements) {
+        this.nme = name;
+        this.tpe = type;
+        this.reqs = Collections.unmodifiableList(requirements);
+    }
+
+    /**
+     * Dependency name.
+     * @return Name
+     */
+    public String name() {
+        return this.nme;
+    }
+
+    /**
+     * Dependency type.
+     * @return Type, {@code runtime} or {@code development}
+     */
+    public String type() {
+        return this.tpe;
+    }
+
+    /**
+     * Is it runtime dependency.
+     * @return True if runtime
+     */
+    public boolean runtime() {
+        return "runtime".equals(this.tpe);
+    }
+
+    /**
+     * Version requirements.
+     * @return Requirements, e.g. {@code >= 1.0}
+     */
+    public List<String> requirements() {
+        return this.reqs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", this.nme, String.join(", ", this.reqs));
+    }
+}
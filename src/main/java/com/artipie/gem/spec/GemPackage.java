@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Gem package archive.
+ * <p>
+ * Reads gem specification from package stream: archive is consumed until
+ * {@code metadata.gz} entry, then the stream is cancelled, so the
+ * {@code data.tar.gz} payload is neither buffered nor read in full.
+ * </p>
+ * @since 1.0
+ */
+public final class GemPackage {
+
+    /**
+     * Package content.
+     */
+    private final Publisher<ByteBuffer> content;
+
+    /**
+     * New gem package.
+     * @param content Package content
+     */
+    public GemPackage(final Publisher<ByteBuffer> content) {
+        this.content = content;
+    }
+
+    /**
+     * Read gem specification.
+     * @return Future with spec
+     */
+    public CompletionStage<GemSpec> spec() {
+        final MetadataEntry entry = new MetadataEntry();
+        return Flowable.fromPublisher(this.content)
+            .takeUntil(entry::accept)
+            .ignoreElements()
+            .to(CompletableInterop.await())
+            .thenApply(none -> entry.spec());
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import com.artipie.gem.GemVersion;
+import com.artipie.gem.NameTuple;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Gem specification, decoded from gem package metadata.
+ * @since 1.0
+ */
+public final class GemSpec {
+
+    /**
+     * Specification date pattern: date with optional time in UTC.
+     */
+    private static final Pattern DATE = Pattern.compile(
+        "(\\d{4}-\\d{2}-\\d{2})(?:[ T](\\d{2}:\\d{2}:\\d{2})(?:\\.\\d+)?(?: ?Z)?)?"
+    );
+
+    /**
+     * Specification YAML data.
+     */
+    private final Map<?, ?> yaml;
+
+    /**
+     * New gem specification.
+     * @param yaml Specification YAML mapping
+     */
+    public GemSpec(final Map<?, ?> yaml) {
+        this.yaml = yaml;
+    }
+
+    /**
+     * Gem name.
+     * @return Name
+     */
+    public String name() {
+        return this.string("name");
+    }
+
+    /**
+     * Gem version.
+     * @return Version
+     */
+    public GemVersion version() {
+        return new GemVersion(GemSpec.version(this.yaml.get("version")));
+    }
+
+    /**
+     * Gem platform.
+     * @return Platform name, {@code ruby} by default
+     */
+    public String platform() {
+        final Object value = this.yaml.get("platform");
+        final String res;
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            res = String.join(
+                "-", GemSpec.present(map.get("cpu"), map.get("os"), map.get("version"))
+            );
+        } else if (value == null || value.toString().isEmpty()) {
+            res = NameTuple.RUBY;
+        } else {
+            res = value.toString();
+        }
+        return res;
+    }
+
+    /**
+     * Gem name tuple.
+     * @return Name, version and platform
+     */
+    public NameTuple tuple() {
+        return new NameTuple(this.name(), this.version(), this.platform());
+    }
+
+    /**
+     * Gem authors.
+     * @return Authors list
+     */
+    public List<String> authors() {
+        return this.strings("authors");
+    }
+
+    /**
+     * Gem summary.
+     * @return Summary
+     */
+    public String summary() {
+        return this.string("summary");
+    }
+
+    /**
+     * Gem description.
+     * @return Description
+     */
+    public String description() {
+        return this.string("description");
+    }
+
+    /**
+     * Gem homepage.
+     * @return Homepage URL
+     */
+    public String homepage() {
+        return this.string("homepage");
+    }
+
+    /**
+     * Gem licenses.
+     * @return Licenses list
+     */
+    public List<String> licenses() {
+        return this.strings("licenses");
+    }
+
+    /**
+     * Gem dependencies.
+     * @return Dependencies list
+     */
+    public List<GemDependency> dependencies() {
+        final Object deps = this.yaml.get("dependencies");
+        final List<GemDependency> res;
+        if (deps instanceof List) {
+            res = ((List<?>) deps).stream()
+                .filter(Map.class::isInstance)
+                .map(Map.class::cast)
+                .map(
+                    dep -> new GemDependency(
+                        Objects.toString(dep.get("name"), ""),
+                        Objects.toString(dep.get("type"), ":runtime").replaceFirst("^:", ""),
+                        GemSpec.requirements(dep.get("requirement"))
+                    )
+                ).collect(Collectors.toList());
+        } else {
+            res = Collections.emptyList();
+        }
+        return res;
+    }
+
+    /**
+     * Runtime dependencies.
+     * @return Dependencies list
+     */
+    public List<GemDependency> runtimeDependencies() {
+        return this.dependencies().stream()
+            .filter(GemDependency::runtime)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Required ruby version.
+     * @return Requirements, e.g. {@code >= 2.5.0}
+     */
+    public List<String> requiredRubyVersion() {
+        return GemSpec.requirements(this.yaml.get("required_ruby_version"));
+    }
+
+    /**
+     * Required rubygems version.
+     * @return Requirements, e.g. {@code >= 1.8.11}
+     */
+    public List<String> requiredRubygemsVersion() {
+        return GemSpec.requirements(this.yaml.get("required_rubygems_version"));
+    }
+
+    /**
+     * Gem metadata.
+     * @return Metadata map
+     */
+    public Map<String, String> metadata() {
+        final Object meta = this.yaml.get("metadata");
+        final Map<String, String> res = new LinkedHashMap<>();
+        if (meta instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) meta).entrySet()) {
+                res.put(Objects.toString(entry.getKey()), Objects.toString(entry.getValue(), ""));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Scalar field of specification.
+     * @param name Field name
+     * @return Field value or empty string
+     */
+    public String string(final String name) {
+        return Objects.toString(this.yaml.get(name), "");
+    }
+
+    /**
+     * List field of specification.
+     * @param name Field name
+     * @return List of values
+     */
+    public List<String> strings(final String name) {
+        final Object value = this.yaml.get(name);
+        final List<String> res;
+        if (value instanceof List) {
+            res = ((List<?>) value).stream()
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+        } else if (value == null) {
+            res = Collections.emptyList();
+        } else {
+            res = Collections.singletonList(value.toString());
+        }
+        return res;
+    }
+
+    /**
+     * Gem info data: all specification attributes, which are set, as they are
+     * printed by Ruby {@code to_s}, e.g. {@code authors} is {@code ["Jim Weirich"]}
+     * and {@code date} is {@code 2019-12-10 00:00:00 UTC}.
+     * @return Map of gem info fields
+     */
+    public Map<String, String> info() {
+        final Map<String, String> res = new LinkedHashMap<>();
+        for (final Map.Entry<?, ?> entry : this.yaml.entrySet()) {
+            if (entry.getValue() != null) {
+                final String name = Objects.toString(entry.getKey());
+                final String value;
+                if ("platform".equals(name)) {
+                    value = this.platform();
+                } else if ("date".equals(name)) {
+                    value = GemSpec.date(entry.getValue().toString());
+                } else {
+                    value = GemSpec.ruby(entry.getValue());
+                }
+                res.put(name, value);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return this.tuple().toString();
+    }
+
+    /**
+     * Version string of {@code Gem::Version} mapping.
+     * @param value YAML value
+     * @return Version string
+     */
+    private static String version(final Object value) {
+        final String res;
+        if (value instanceof Map) {
+            res = Objects.toString(((Map<?, ?>) value).get("version"), "0");
+        } else {
+            res = Objects.toString(value, "0");
+        }
+        return res;
+    }
+
+    /**
+     * Requirements of {@code Gem::Requirement} mapping.
+     * @param value YAML value
+     * @return Requirements list, e.g. {@code >= 1.0}
+     */
+    private static List<String> requirements(final Object value) {
+        final List<String> res = new ArrayList<>(1);
+        if (value instanceof Map && ((Map<?, ?>) value).get("requirements") instanceof List) {
+            for (final Object req : (List<?>) ((Map<?, ?>) value).get("requirements")) {
+                if (req instanceof List && ((List<?>) req).size() == 2) {
+                    res.add(
+                        String.format(
+                            "%s %s",
+                            ((List<?>) req).get(0), GemSpec.version(((List<?>) req).get(1))
+                        )
+                    );
+                }
+            }
+        }
+        if (res.isEmpty()) {
+            res.add(">= 0");
+        }
+        return res;
+    }
+
+    /**
+     * YAML value, printed as Ruby {@code to_s} does.
+     * @param value YAML value
+     * @return String
+     */
+    private static String ruby(final Object value) {
+        final String res;
+        if (value instanceof List) {
+            res = ((List<?>) value).stream()
+                .map(GemSpec::inspect)
+                .collect(Collectors.joining(", ", "[", "]"));
+        } else if (value instanceof Map && ((Map<?, ?>) value).containsKey("requirements")) {
+            res = String.join(", ", GemSpec.requirements(value));
+        } else if (value instanceof Map && ((Map<?, ?>) value).keySet().equals(
+            Collections.singleton("version")
+        )) {
+            res = GemSpec.version(value);
+        } else if (value instanceof Map) {
+            res = ((Map<?, ?>) value).entrySet().stream()
+                .map(
+                    entry -> String.format(
+                        "%s=>%s", GemSpec.inspect(entry.getKey()),
+                        GemSpec.inspect(entry.getValue())
+                    )
+                ).collect(Collectors.joining(", ", "{", "}"));
+        } else {
+            res = Objects.toString(value, "");
+        }
+        return res;
+    }
+
+    /**
+     * YAML value, printed as Ruby {@code inspect} does.
+     * @param value YAML value
+     * @return String
+     */
+    private static String inspect(final Object value) {
+        final String res;
+        if (value == null) {
+            res = "nil";
+        } else if (value instanceof String) {
+            res = String.format(
+                "\"%s\"", ((String) value).replace("\\", "\\\\").replace("\"", "\\\"")
+            );
+        } else if (value instanceof Map && ((Map<?, ?>) value).containsKey("requirement")) {
+            final Map<?, ?> dep = (Map<?, ?>) value;
+            res = String.format(
+                "<Gem::Dependency type=%s name=%s requirements=%s>",
+                Objects.toString(dep.get("type"), ":runtime"),
+                GemSpec.inspect(Objects.toString(dep.get("name"), "")),
+                GemSpec.inspect(GemSpec.ruby(dep.get("requirement")))
+            );
+        } else if (value instanceof List || value instanceof Map) {
+            res = GemSpec.ruby(value);
+        } else {
+            res = value.toString();
+        }
+        return res;
+    }
+
+    /**
+     * Specification date, printed as Ruby {@code Time#to_s} does.
+     * @param value YAML date, e.g. {@code 2019-12-10 00:00:00.000000000 Z}
+     * @return Date string, e.g. {@code 2019-12-10 00:00:00 UTC}
+     */
+    private static String date(final String value) {
+        final Matcher matcher = GemSpec.DATE.matcher(value.trim());
+        final String res;
+        if (matcher.matches()) {
+            res = String.format(
+                "%s %s UTC", matcher.group(1), Objects.toString(matcher.group(2), "00:00:00")
+            );
+        } else {
+            res = value;
+        }
+        return res;
+    }
+
+    /**
+     * Non-null values as strings.
+     * @param values Values
+     * @return Strings list
+     */
+    private static List<String> present(final Object... values) {
+        final List<String> res = new ArrayList<>(values.length);
+        for (final Object val : values) {
+            if (val != null) {
+                res.add(val.toString());
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.reactivestreams.Publisher;
+
+/**
+ * Gem package upload.
+ * <p>
+ * Inspects package stream while it's consumed by storage: gem specification
+ * is parsed from {@code metadata.gz} entry and SHA-256 checksum of the package
+ * is computed on the fly, so uploaded gem is not read again to find its
+ * name or checksum. Specification and checksum are available
+ * when upload content is consumed completely.
+ * </p>
+ * @since 1.0
+ */
+public final class GemUpload {
+
+    /**
+     * Upload content.
+     */
+    private final Publisher<ByteBuffer> origin;
+
+    /**
+     * Metadata entry parser.
+     */
+    private final MetadataEntry entry;
+
+    /**
+     * Content digest.
+     */
+    private final MessageDigest digest;
+
+    /**
+     * Metadata entry was parsed.
+     */
+    private boolean parsed;
+
+    /**
+     * Hex checksum, null until content is consumed.
+     */
+    private volatile String sum;
+
+    /**
+     * New gem upload.
+     * @param origin Upload content
+     */
+    public GemUpload(final Publisher<ByteBuffer> origin) {
+        this.origin = origin;
+        this.entry = new MetadataEntry();
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException(err);
+        }
+    }
+
+    /**
+     * Upload content to consume, can be consumed once.
+     * @return Content publisher
+     */
+    public Publisher<ByteBuffer> content() {
+        return Flowable.fromPublisher(this.origin)
+            .doOnNext(this::accept)
+            .doOnComplete(this::complete);
+    }
+
+    /**
+     * Gem specification of consumed upload.
+     * @return Gem spec
+     */
+    public GemSpec spec() {
+        return this.entry.spec();
+    }
+
+    /**
+     * SHA-256 checksum of consumed upload.
+     * @return Hex checksum
+     */
+    public String sha256() {
+        if (this.sum == null) {
+            throw new IllegalStateException("Gem upload is not consumed");
+        }
+        return this.sum;
+    }
+
+    /**
+     * Accept content chunk.
+     * @param chunk Chunk, its position is not changed
+     */
+    private void accept(final ByteBuffer chunk) {
+        this.digest.update(chunk.duplicate());
+        if (!this.parsed) {
+            this.parsed = this.entry.accept(chunk);
+        }
+    }
+
+    /**
+     * Complete checksum when content is consumed.
+     */
+    private void complete() {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte val : this.digest.digest()) {
+            hex.append(String.format("%02x", val));
+        }
+        this.sum = hex.toString();
+    }
+}
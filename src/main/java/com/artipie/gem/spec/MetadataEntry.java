@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Push parser of gem package tar archive, which extracts {@code metadata.gz} entry.
+ * <p>
+ * Archive chunks are accepted one by one; content of other entries is skipped
+ * without buffering. Parser is done when metadata entry is read, archive ends
+ * or archive is found to be malformed; in the latter case the error is thrown
+ * on {@link #spec()}, so malformed archive doesn't break consumed stream.
+ * </p>
+ * @since 1.0
+ */
+final class MetadataEntry {
+
+    /**
+     * Tar block size.
+     */
+    private static final int BLOCK = 512;
+
+    /**
+     * Metadata entry name.
+     */
+    private static final String NAME = "metadata.gz";
+
+    /**
+     * Current entry header.
+     */
+    private final ByteBuffer header;
+
+    /**
+     * Metadata content.
+     */
+    private final ByteArrayOutputStream content;
+
+    /**
+     * Bytes to skip before next header.
+     */
+    private long skip;
+
+    /**
+     * Metadata bytes left to read, negative when not reading metadata.
+     */
+    private long left;
+
+    /**
+     * Parsing is done.
+     */
+    private boolean done;
+
+    /**
+     * Parsing error, null if archive is valid so far.
+     */
+    private ArtipieIOException error;
+
+    /**
+     * New parser.
+     */
+    MetadataEntry() {
+        this.header = ByteBuffer.allocate(MetadataEntry.BLOCK);
+        this.content = new ByteArrayOutputStream();
+        this.left = -1;
+    }
+
+    /**
+     * Accept next archive chunk.
+     * @param chunk Chunk, its position is not changed
+     * @return True if parsing is done and no more chunks are needed
+     */
+    boolean accept(final ByteBuffer chunk) {
+        final ByteBuffer buf = chunk.duplicate();
+        while (buf.hasRemaining() && !this.done) {
+            if (this.skip > 0) {
+                final int len = (int) Math.min(this.skip, buf.remaining());
+                buf.position(buf.position() + len);
+                this.skip -= len;
+            } else if (this.left > 0) {
+                final int len = (int) Math.min(this.left, buf.remaining());
+                final byte[] bytes = new byte[len];
+                buf.get(bytes);
+                this.content.write(bytes, 0, len);
+                this.left -= len;
+                this.done = this.left == 0;
+            } else {
+                final int len = Math.min(this.header.remaining(), buf.remaining());
+                final ByteBuffer slice = buf.slice();
+                slice.limit(len);
+                this.header.put(slice);
+                buf.position(buf.position() + len);
+                if (!this.header.hasRemaining()) {
+                    try {
+                        this.entry();
+                    } catch (final ArtipieIOException err) {
+                        this.error = err;
+                        this.done = true;
+                    }
+                }
+            }
+        }
+        return this.done;
+    }
+
+    /**
+     * Gem specification from metadata entry.
+     * @return Gem spec
+     */
+    GemSpec spec() {
+        if (this.error != null) {
+            throw this.error;
+        }
+        if (!this.done || this.left != 0) {
+            throw new ArtipieIOException("Gem metadata entry not found");
+        }
+        return new SpecYaml(this.content.toByteArray()).spec();
+    }
+
+    /**
+     * Parse complete entry header.
+     */
+    private void entry() {
+        final byte[] block = this.header.array();
+        this.header.clear();
+        boolean empty = true;
+        for (final byte item : block) {
+            if (item != 0) {
+                empty = false;
+                break;
+            }
+        }
+        if (empty) {
+            this.done = true;
+        } else {
+            final long size = MetadataEntry.octal(block, 124, 12);
+            if (MetadataEntry.NAME.equals(MetadataEntry.text(block, 0, 100))
+                && block[156] != 'L') {
+                this.left = size;
+                this.done = size == 0;
+            } else {
+                this.skip = size + (MetadataEntry.BLOCK - size % MetadataEntry.BLOCK)
+                    % MetadataEntry.BLOCK;
+            }
+        }
+    }
+
+    /**
+     * Read NUL-terminated header text field.
+     * @param block Header block
+     * @param offset Field offset
+     * @param len Field length
+     * @return Text
+     */
+    private static String text(final byte[] block, final int offset, final int len) {
+        int end = offset;
+        while (end < offset + len && block[end] != 0) {
+            ++end;
+        }
+        return new String(block, offset, end - offset, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read octal header number field.
+     * @param block Header block
+     * @param offset Field offset
+     * @param len Field length
+     * @return Number
+     * @throws ArtipieIOException If field is not a non-negative octal number
+     */
+    private static long octal(final byte[] block, final int offset, final int len) {
+        final String text = MetadataEntry.text(block, offset, len).trim();
+        final long res;
+        if (text.isEmpty()) {
+            res = 0;
+        } else {
+            try {
+                res = Long.parseLong(text, 8);
+            } catch (final NumberFormatException err) {
+                throw new ArtipieIOException(
+                    String.format("Invalid tar header number: %s", text), err
+                );
+            }
+            if (res < 0) {
+                throw new ArtipieIOException(
+                    String.format("Negative tar header number: %s", text)
+                );
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.AbstractConstruct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Gem specification YAML, as stored in {@code metadata.gz} entry of gem package.
+ * <p>
+ * Ruby object tags ({@code !ruby/object:Gem::Version} and others) are decoded
+ * as plain mappings, scalars are never resolved to numbers, booleans or dates.
+ * </p>
+ * @since 1.0
+ */
+public final class SpecYaml {
+
+    /**
+     * Gzipped YAML bytes.
+     */
+    private final byte[] gzipped;
+
+    /**
+     * New gem specification YAML.
+     * @param gzipped Gzipped YAML bytes of {@code metadata.gz}
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public SpecYaml(final byte[] gzipped) {
+        this.gzipped = gzipped;
+    }
+
+    /**
+     * Decode gem specification.
+     * @return Gem spec
+     */
+    public GemSpec spec() {
+        final Object yaml;
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(this.gzipped))) {
+            yaml = new Yaml(
+                new RubyConstructor(), new Representer(), new DumperOptions(), new StringResolver()
+            ).load(input);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        } catch (final YAMLException err) {
+            throw new ArtipieIOException(
+                String.format("Invalid gem specification: %s", err.getMessage())
+            );
+        }
+        if (!(yaml instanceof Map)) {
+            throw new ArtipieIOException("Gem specification mapping expected");
+        }
+        return new GemSpec((Map<?, ?>) yaml);
+    }
+
+    /**
+     * Safe constructor which decodes Ruby objects as plain collections.
+     * @since 1.0
+     */
+    private static final class RubyConstructor extends SafeConstructor {
+
+        /**
+         * Ctor.
+         */
+        RubyConstructor() {
+            super();
+            this.yamlConstructors.put(null, new ConstructRuby());
+        }
+
+        /**
+         * Construct any node with unknown tag.
+         * @since 1.0
+         */
+        private final class ConstructRuby extends AbstractConstruct {
+
+            @Override
+            public Object construct(final Node node) {
+                final Object res;
+                if (node instanceof MappingNode) {
+                    res = RubyConstructor.this.constructMapping((MappingNode) node);
+                } else if (node instanceof SequenceNode) {
+                    res = RubyConstructor.this.constructSequence((SequenceNode) node);
+                } else {
+                    res = RubyConstructor.this.constructScalar((ScalarNode) node);
+                }
+                return res;
+            }
+        }
+    }
+
+    /**
+     * Resolver which resolves only null values, other scalars are strings.
+     * @since 1.0
+     */
+    private static final class StringResolver extends Resolver {
+
+        @Override
+        protected void addImplicitResolvers() {
+            this.addImplicitResolver(Tag.NULL, Resolver.NULL, "~nN\0");
+            this.addImplicitResolver(Tag.NULL, Resolver.EMPTY, null);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link AsyncCache}.
+ *
+ * @since 1.0
+ */
+final class AsyncCacheTest {
+
+    @Test
+    void loadsValueOnce() {
+        final AtomicInteger loads = new AtomicInteger();
+        final AsyncCache<String, Integer> cache = new AsyncCache<>(10L, Duration.ofMinutes(1L));
+        final Function<String, CompletableFuture<Integer>> loader =
+            key -> CompletableFuture.completedFuture(loads.incrementAndGet());
+        cache.get("one", loader::apply).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            cache.get("one", loader::apply).toCompletableFuture().join(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    void reloadsInvalidatedValue() {
+        final AtomicInteger loads = new AtomicInteger();
+        final AsyncCache<String, Integer> cache = new AsyncCache<>(10L, Duration.ofMinutes(1L));
+        cache.get("one", key -> CompletableFuture.completedFuture(loads.incrementAndGet()));
+        cache.invalidate("one");
+        MatcherAssert.assertThat(
+            cache.get("one", key -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+                .toCompletableFuture().join(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedValue() {
+        final AsyncCache<String, String> cache = new AsyncCache<>(1L, Duration.ofMinutes(1L));
+        cache.get("first", CompletableFuture::completedFuture);
+        cache.get("second", CompletableFuture::completedFuture);
+        MatcherAssert.assertThat(
+            cache.get("first", key -> CompletableFuture.completedFuture("reloaded"))
+                .toCompletableFuture().join(),
+            Matchers.equalTo("reloaded")
+        );
+    }
+
+    @Test
+    void expiresValue() throws InterruptedException {
+        final AsyncCache<String, String> cache = new AsyncCache<>(10L, Duration.ofMillis(10L));
+        cache.get("key", CompletableFuture::completedFuture);
+        Thread.sleep(50L);
+        MatcherAssert.assertThat(
+            cache.get("key", key -> CompletableFuture.completedFuture("reloaded"))
+                .toCompletableFuture().join(),
+            Matchers.equalTo("reloaded")
+        );
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        final AsyncCache<String, String> cache = new AsyncCache<>(10L, Duration.ofMinutes(1L));
+        final CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ArtipieIOException("failed"));
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> cache.get("key", key -> failed).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            cache.get("key", CompletableFuture::completedFuture).toCompletableFuture().join(),
+            Matchers.equalTo("key")
+        );
+    }
+}
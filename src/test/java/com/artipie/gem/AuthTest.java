@@ -31,6 +31,7 @@ import com.artipie.http.Response;
 import com.artipie.http.auth.Authentication;
 import com.artipie.http.auth.Permissions;
 import com.artipie.http.headers.Authorization;
+import com.artipie.http.headers.ContentLength;
 import com.artipie.http.headers.Header;
 import com.artipie.http.hm.RsHasBody;
 import com.artipie.http.hm.RsHasHeaders;
@@ -152,6 +153,7 @@ public class AuthTest {
         } else {
             token = new Base64Encoded(String.format("%s:wrong%s", user, pswd)).asString();
         }
+        final byte[] gem = new TestResource("rails-6.0.2.2.gem").asBytes();
         return new GemSlice(
             new InMemoryStorage(),
             new Permissions.Single(user, "upload"),
@@ -159,11 +161,10 @@ public class AuthTest {
         ).response(
             new RequestLine("POST", "/api/v1/gems").toString(),
             new Headers.From(
-                new Authorization(String.format("Basic %s", token))
+                new Authorization(String.format("Basic %s", token)),
+                new ContentLength(gem.length)
             ),
-            Flowable.just(
-                ByteBuffer.wrap(new TestResource("rails-6.0.2.2.gem").asBytes())
-            )
+            Flowable.just(ByteBuffer.wrap(gem))
         );
     }
 }
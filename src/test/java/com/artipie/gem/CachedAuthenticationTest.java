@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.http.auth.Authentication;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CachedAuthentication}.
+ *
+ * @since 1.0
+ */
+final class CachedAuthenticationTest {
+
+    @Test
+    void cachesSuccessfulAuthentication() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachedAuthentication auth = new CachedAuthentication(
+            (name, pwd) -> {
+                calls.incrementAndGet();
+                return Optional.of(new Authentication.User(name));
+            }
+        );
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            "Should return cached user",
+            auth.user("alice", "secret").map(Authentication.User::name),
+            Matchers.equalTo(Optional.of("alice"))
+        );
+        auth.user("alice", "other");
+        MatcherAssert.assertThat(
+            "Should call origin once per credentials",
+            calls.get(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void cachesFailedAuthenticationForShortTime() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachedAuthentication auth = new CachedAuthentication(
+            (name, pwd) -> {
+                calls.incrementAndGet();
+                return Optional.empty();
+            },
+            10L, Duration.ofMinutes(1L), Duration.ofMillis(50L)
+        );
+        auth.user("bob", "wrong");
+        auth.user("bob", "wrong");
+        MatcherAssert.assertThat(
+            "Should cache failure",
+            calls.get(),
+            Matchers.equalTo(1)
+        );
+        Thread.sleep(100L);
+        auth.user("bob", "wrong");
+        MatcherAssert.assertThat(
+            "Should expire failure",
+            calls.get(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void invalidatesUser() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachedAuthentication auth = new CachedAuthentication(
+            (name, pwd) -> {
+                calls.incrementAndGet();
+                return Optional.of(new Authentication.User(name));
+            }
+        );
+        auth.user("carol", "secret");
+        auth.invalidate("carol");
+        auth.user("carol", "secret");
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(2));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Checksums}.
+ *
+ * @since 1.0
+ */
+final class ChecksumsTest {
+
+    /**
+     * Checksum of gviz gem.
+     */
+    private static final String SHA =
+        "66636b839f96dccffb9f51ae06252e19836bb7ceb20dcf8f18918ae77e94b135";
+
+    @Test
+    void readsSavedChecksum() {
+        final Checksums sums = new Checksums(new InMemoryStorage());
+        final Key gem = new Key.From("gems", "gviz-0.3.5.gem");
+        sums.save(gem, ChecksumsTest.SHA).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            sums.get(gem).toCompletableFuture().join(),
+            Matchers.equalTo(ChecksumsTest.SHA)
+        );
+    }
+
+    @Test
+    void computesAndStoresMissingChecksum() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Key gem = new Key.From("gems", "gviz-0.3.5.gem");
+        bsto.save(gem, new TestResource("gviz-0.3.5.gem").asBytes());
+        MatcherAssert.assertThat(
+            "Should compute checksum from gem",
+            new Checksums(storage).get(gem).toCompletableFuture().join(),
+            Matchers.equalTo(ChecksumsTest.SHA)
+        );
+        MatcherAssert.assertThat(
+            "Should store checksum alongside gem",
+            new String(
+                bsto.value(new Key.From("gems", "gviz-0.3.5.gem.sha256")),
+                StandardCharsets.US_ASCII
+            ),
+            Matchers.equalTo(ChecksumsTest.SHA)
+        );
+    }
+}
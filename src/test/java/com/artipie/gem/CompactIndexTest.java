@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CompactIndex}.
+ *
+ * @since 1.0
+ */
+final class CompactIndexTest {
+
+    @Test
+    void writesInfoFileWithDependencies() {
+        final Storage storage = new InMemoryStorage();
+        new CompactIndex(storage).add(
+            Collections.singletonMap(CompactIndexTest.spec("rails-6.0.2.2.gem"), "abc")
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, "info/rails"),
+            Matchers.allOf(
+                Matchers.startsWith("---\n6.0.2.2 "),
+                Matchers.containsString("activesupport:= 6.0.2.2,"),
+                Matchers.containsString("bundler:>= 1.3.0,"),
+                Matchers.containsString("|checksum:abc,ruby:>= 2.5.0,rubygems:>= 1.8.11\n")
+            )
+        );
+    }
+
+    @Test
+    void appendsToVersionsFile() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singletonMap(CompactIndexTest.spec("rails-6.0.2.2.gem"), "abc"))
+            .toCompletableFuture().join();
+        final String before = CompactIndexTest.text(storage, "versions");
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "def"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, "versions"),
+            Matchers.allOf(
+                Matchers.startsWith(before),
+                Matchers.matchesPattern(
+                    "created_at: \\S+\n---\nrails 6.0.2.2 [0-9a-f]{32}\ngviz 0.3.5 [0-9a-f]{32}\n"
+                )
+            )
+        );
+    }
+
+    @Test
+    void writesSortedNames() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singletonMap(CompactIndexTest.spec("rails-6.0.2.2.gem"), "abc"))
+            .toCompletableFuture().join();
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "def"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, "names"),
+            Matchers.equalTo("---\ngviz\nrails\n")
+        );
+    }
+
+    @Test
+    void skipsIndexedVersions() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "abc"))
+            .toCompletableFuture().join();
+        final String versions = CompactIndexTest.text(storage, "versions");
+        final String info = CompactIndexTest.text(storage, "info/gviz");
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "abc"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, "versions").concat(
+                CompactIndexTest.text(storage, "info/gviz")
+            ),
+            Matchers.equalTo(versions.concat(info))
+        );
+    }
+
+    @Test
+    void removesYankedVersion() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "abc"))
+            .toCompletableFuture().join();
+        index.remove(new NameTuple("gviz", "0.3.5", "ruby")).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should remove info line",
+            CompactIndexTest.text(storage, "info/gviz"),
+            Matchers.equalTo("---\n")
+        );
+        MatcherAssert.assertThat(
+            "Should append yanked version to versions file",
+            CompactIndexTest.text(storage, "versions"),
+            Matchers.matchesPattern(
+                "created_at: \\S+\n---\ngviz 0.3.5 [0-9a-f]{32}\ngviz -0.3.5 [0-9a-f]{32}\n"
+            )
+        );
+    }
+
+    @Test
+    void replacesIndex() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singletonMap(CompactIndexTest.spec("rails-6.0.2.2.gem"), "abc"))
+            .toCompletableFuture().join();
+        index.add(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "def"))
+            .toCompletableFuture().join();
+        index.replace(Collections.singletonMap(CompactIndexTest.spec("gviz-0.3.5.gem"), "ghi"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should rewrite versions file",
+            CompactIndexTest.text(storage, "versions"),
+            Matchers.matchesPattern("created_at: \\S+\n---\ngviz 0.3.5 [0-9a-f]{32}\n")
+        );
+        MatcherAssert.assertThat(
+            "Should rewrite info file",
+            CompactIndexTest.text(storage, "info/gviz"),
+            Matchers.allOf(
+                Matchers.startsWith("---\n0.3.5 "),
+                Matchers.containsString("|checksum:ghi")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should rewrite names file",
+            CompactIndexTest.text(storage, "names"),
+            Matchers.equalTo("---\ngviz\n")
+        );
+        MatcherAssert.assertThat(
+            "Should remove info file of missing gem",
+            new BlockingStorage(storage).exists(new Key.From("info/rails")),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Spec of gem from resources.
+     * @param name Resource name
+     * @return Gem spec
+     */
+    private static GemSpec spec(final String name) {
+        return new GemPackage(new Content.From(new TestResource(name).asBytes()))
+            .spec().toCompletableFuture().join();
+    }
+
+    /**
+     * Read text file from storage.
+     * @param storage Storage
+     * @param key Key
+     * @return File text
+     */
+    private static String text(final Storage storage, final String key) {
+        return new String(
+            new BlockingStorage(storage).value(new Key.From(key)),
+            StandardCharsets.UTF_8
+        );
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.spec.GemDependency;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemCatalog}.
+ *
+ * @since 1.0
+ */
+final class GemCatalogTest {
+
+    @Test
+    void loadsDependenciesOfIndexedGems() {
+        final Storage storage = new InMemoryStorage();
+        GemCatalogTest.index(storage, "rails-6.0.2.2.gem");
+        final Map<NameTuple, List<GemDependency>> deps = new GemCatalog(storage)
+            .dependencies(Collections.singletonList("rails"))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            deps.get(new NameTuple("rails", "6.0.2.2", "ruby")).stream()
+                .map(GemDependency::name).collect(Collectors.toList()),
+            Matchers.hasItems("activesupport", "actionpack", "bundler")
+        );
+    }
+
+    @Test
+    void returnsAddedGemsDependencies() {
+        final GemCatalog index = new GemCatalog(new InMemoryStorage());
+        index.add(
+            new Key.From("gviz-0.3.5.gem"),
+            new GemPackage(new Content.From(new TestResource("gviz-0.3.5.gem").asBytes()))
+                .spec().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            index.dependencies(Arrays.asList("gviz", "unknown"))
+                .toCompletableFuture().join().keySet(),
+            Matchers.contains(new NameTuple("gviz", "0.3.5", "ruby"))
+        );
+    }
+
+    @Test
+    void findsLatestReleasedVersion() {
+        final GemCatalog catalog = new GemCatalog(new InMemoryStorage());
+        for (final String version : new String[] {"0.3.5", "0.10.0", "0.9.1", "1.0.0.rc1"}) {
+            catalog.add(
+                new Key.From(String.format("gviz-%s.gem", version)),
+                GemCatalogTest.spec(version)
+            );
+        }
+        MatcherAssert.assertThat(
+            catalog.latest("gviz").toCompletableFuture().join().get().string(),
+            Matchers.equalTo("gviz-0.10.0.gem")
+        );
+    }
+
+    @Test
+    void resolvesCanonicalKeyOfIndexedGem() {
+        final Storage storage = new InMemoryStorage();
+        GemCatalogTest.index(storage, "gviz-0.3.5.gem");
+        MatcherAssert.assertThat(
+            new GemCatalog(storage).latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.of(new Key.From("gems", "gviz-0.3.5.gem")))
+        );
+    }
+
+    @Test
+    void reloadsIndexOfNewGeneration() {
+        final Storage storage = new InMemoryStorage();
+        final GemCatalog catalog = new GemCatalog(
+            storage, new IndexGeneration(storage, Duration.ZERO)
+        );
+        catalog.latest("gviz").toCompletableFuture().join();
+        GemCatalogTest.index(storage, "gviz-0.3.5.gem");
+        new IndexGeneration(storage).next().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            catalog.latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.of(new Key.From("gems", "gviz-0.3.5.gem")))
+        );
+    }
+
+    @Test
+    void doesNotReadNotIndexedGems() {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("gems", "0123456789abcdef.gem"),
+            new TestResource("gviz-0.3.5.gem").asBytes()
+        );
+        MatcherAssert.assertThat(
+            new GemCatalog(storage).latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void keepsGemsOfAdvancedGeneration() {
+        final Storage storage = new InMemoryStorage();
+        final IndexGeneration generation = new IndexGeneration(storage, Duration.ZERO);
+        final GemCatalog catalog = new GemCatalog(storage, generation);
+        final String before = generation.fresh().toCompletableFuture().join();
+        catalog.latest("gviz").toCompletableFuture().join();
+        final Key key = new Key.From("gviz-0.3.5.gem");
+        catalog.add(key, GemCatalogTest.spec("0.3.5"));
+        catalog.advance(before, generation.next().toCompletableFuture().join());
+        MatcherAssert.assertThat(
+            catalog.latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.of(key))
+        );
+    }
+
+    @Test
+    void dropsGemsOnReplace() {
+        final Storage storage = new InMemoryStorage();
+        final IndexGeneration generation = new IndexGeneration(storage, Duration.ZERO);
+        final GemCatalog catalog = new GemCatalog(storage, generation);
+        catalog.add(new Key.From("gviz-0.3.5.gem"), GemCatalogTest.spec("0.3.5"));
+        catalog.replace(Collections.emptyMap(), generation.next().toCompletableFuture().join());
+        MatcherAssert.assertThat(
+            catalog.latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void returnsEmptyForUnknownGem() {
+        MatcherAssert.assertThat(
+            new GemCatalog(new InMemoryStorage()).latest("gviz").toCompletableFuture().join(),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    /**
+     * Save gem from resources to its canonical key and add it to specs index.
+     * @param storage Storage
+     * @param name Resource name
+     */
+    private static void index(final Storage storage, final String name) {
+        final byte[] bytes = new TestResource(name).asBytes();
+        final GemSpec spec = new GemPackage(new Content.From(bytes))
+            .spec().toCompletableFuture().join();
+        new BlockingStorage(storage).save(GemKeys.gem(spec.tuple()), bytes);
+        new StorageIndex(storage).add(Collections.singletonList(spec))
+            .toCompletableFuture().join();
+    }
+
+    /**
+     * Spec of gviz gem.
+     * @param version Gem version
+     * @return Gem spec
+     */
+    private static GemSpec spec(final String version) {
+        final Map<String, Object> yaml = new HashMap<>();
+        yaml.put("name", "gviz");
+        yaml.put("version", Collections.singletonMap("version", version));
+        return new GemSpec(yaml);
+    }
+}
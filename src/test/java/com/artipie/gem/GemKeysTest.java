@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemKeys}.
+ *
+ * @since 1.0
+ */
+final class GemKeysTest {
+
+    @Test
+    void buildsGemKey() {
+        MatcherAssert.assertThat(
+            GemKeys.gem(new NameTuple("nokogiri", "1.10.9", "x86_64-linux")).string(),
+            Matchers.equalTo("gems/nokogiri-1.10.9-x86_64-linux.gem")
+        );
+    }
+
+    @Test
+    void rejectsInvalidNames() {
+        MatcherAssert.assertThat(
+            Stream.of("../versions", "a/b", "..", ".", "", "name version")
+                .filter(GemKeys::valid)
+                .collect(Collectors.toList()),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void rejectsInvalidTuple() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> GemKeys.gem(new NameTuple("rails", "6.0", "../../x"))
+        );
+    }
+
+    @Test
+    void readsUploadTimeOfStagingKey() {
+        final Instant time = Instant.ofEpochMilli(1_600_000_000_000L);
+        MatcherAssert.assertThat(
+            GemKeys.uploaded(GemKeys.upload(time)),
+            Matchers.equalTo(Optional.of(time))
+        );
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.spec.GemSpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemScan}.
+ *
+ * @since 1.0
+ */
+final class GemScanTest {
+
+    @Test
+    void readsSpecsAndWritesQuickSpecs() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Key builder = new Key.From("gems", "builder-3.2.4.gem");
+        final Key gviz = new Key.From("gems", "gviz-0.3.5.gem");
+        bsto.save(builder, new TestResource("builder-3.2.4.gem").asBytes());
+        bsto.save(gviz, new TestResource("gviz-0.3.5.gem").asBytes());
+        final Map<Key, GemSpec> specs = new GemScan(storage, 2)
+            .specs(Arrays.asList(builder, gviz)).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should read specs of gems",
+            specs.entrySet().stream().collect(
+                Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().name())
+            ),
+            Matchers.allOf(
+                Matchers.hasEntry(builder, "builder"),
+                Matchers.hasEntry(gviz, "gviz")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should write quick specs",
+            bsto.exists(new Key.From("quick/Marshal.4.8/gviz-0.3.5.gemspec.rz")),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void readsChecksums() {
+        final Storage storage = new InMemoryStorage();
+        final Key gem = new Key.From("gems", "gviz-0.3.5.gem");
+        new BlockingStorage(storage).save(gem, new TestResource("gviz-0.3.5.gem").asBytes());
+        MatcherAssert.assertThat(
+            new GemScan(storage, 1).checksums(Collections.singleton(gem))
+                .toCompletableFuture().join(),
+            Matchers.hasEntry(
+                Matchers.equalTo(gem),
+                Matchers.equalTo(
+                    new Checksums(storage).get(gem).toCompletableFuture().join()
+                )
+            )
+        );
+    }
+
+    @Test
+    void skipsBrokenGems() {
+        final Storage storage = new InMemoryStorage();
+        final Key broken = new Key.From("gems", "broken-1.0.gem");
+        new BlockingStorage(storage).save(broken, "broken".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            new GemScan(storage).specs(Arrays.asList(broken)).toCompletableFuture().join(),
+            Matchers.anEmptyMap()
+        );
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.marshal.MarshalSpecs;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Gem}.
+ *
+ * @since 1.0
+ */
+final class GemTest {
+
+    @Test
+    void keepsAllGemsPushedConcurrentlyToMemory() throws IOException {
+        GemTest.pushConcurrently(new InMemoryStorage());
+    }
+
+    @Test
+    void keepsAllGemsPushedConcurrentlyToFiles(@TempDir final Path tmp) throws IOException {
+        GemTest.pushConcurrently(new FileStorage(tmp));
+    }
+
+    @Test
+    void servesCachedInfoWithoutStorage() {
+        final Storage storage = new InMemoryStorage();
+        final Key key = new Key.From("gems", "gviz-0.3.5.gem");
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(key, new TestResource("gviz-0.3.5.gem").asBytes());
+        final Gem gem = new Gem(storage);
+        gem.update(key).toCompletableFuture().join();
+        gem.info("gviz", data -> data).toCompletableFuture().join();
+        bsto.delete(key);
+        MatcherAssert.assertThat(
+            gem.info("gviz", data -> data.get("homepage")).toCompletableFuture().join(),
+            Matchers.equalTo("https://github.com/melborne/Gviz")
+        );
+    }
+
+    @Test
+    void journalsPublishedGem() {
+        final Storage storage = new InMemoryStorage();
+        final Key staged = GemKeys.upload(Instant.now());
+        final Key key = new Key.From("gems", "builder-3.2.4.gem");
+        new BlockingStorage(storage).save(
+            staged, new TestResource("builder-3.2.4.gem").asBytes()
+        );
+        new Gem(storage).publish(staged, key, "abc").toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new IndexJournal(storage).pending().toCompletableFuture().join(),
+            Matchers.contains(key)
+        );
+    }
+
+    @Test
+    void recoversJournaledGems() {
+        final Storage storage = new InMemoryStorage();
+        final Key saved = new Key.From("gems", "builder-3.2.4.gem");
+        final Key lost = new Key.From("gems", "lost.gem");
+        final IndexJournal journal = new IndexJournal(storage);
+        journal.add(saved).toCompletableFuture().join();
+        journal.add(lost).toCompletableFuture().join();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(saved, new TestResource("builder-3.2.4.gem").asBytes());
+        MatcherAssert.assertThat(
+            "Should index saved gem only",
+            new Gem(storage).recover().toCompletableFuture().join(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            "Should add saved gem to index",
+            new MarshalSpecs().decode(bsto.value(new Key.From("specs.4.8")))
+                .stream().map(NameTuple::name).collect(Collectors.toList()),
+            Matchers.contains("builder")
+        );
+        MatcherAssert.assertThat(
+            "Should clear journal",
+            new IndexJournal(storage).pending().toCompletableFuture().join(),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void removesAbandonedUploads() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Key abandoned = GemKeys.upload(Instant.now().minus(Duration.ofDays(1L)));
+        final Key legacy = new Key.From(".uploads", "e3b0c442-98fc-1c14-9afb-f4c8996fb924");
+        final Key active = GemKeys.upload(Instant.now());
+        for (final Key key : Arrays.asList(abandoned, legacy, active)) {
+            bsto.save(key, new byte[] {1});
+        }
+        new Gem(storage).recover().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            bsto.list(GemKeys.UPLOADS),
+            Matchers.contains(active)
+        );
+    }
+
+    @Test
+    void regeneratesBrokenIndexFromAllGems() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Key builder = new Key.From("gems", "builder-3.2.4.gem");
+        final Key gviz = new Key.From("gems", "gviz-0.3.5.gem");
+        bsto.save(builder, new TestResource("builder-3.2.4.gem").asBytes());
+        bsto.save(gviz, new TestResource("gviz-0.3.5.gem").asBytes());
+        final Gem gem = new Gem(storage);
+        gem.update(builder).toCompletableFuture().join();
+        bsto.save(new Key.From("specs.4.8"), "broken".getBytes(StandardCharsets.UTF_8));
+        gem.update(gviz).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(bsto.value(new Key.From("specs.4.8")))
+                .stream().map(NameTuple::name).collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("builder", "gviz")
+        );
+    }
+
+    @Test
+    void reindexesAllGems() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final int count = 40;
+        for (int num = 0; num < count; ++num) {
+            bsto.save(
+                new Key.From("gems", String.format("gem-%d-3.2.4.gem", num)),
+                GemTest.gem(String.format("gem-%d", num))
+            );
+        }
+        final Key stale = new Key.From("quick/Marshal.4.8/stale-1.0.gemspec.rz");
+        bsto.save(stale, new byte[] {1});
+        MatcherAssert.assertThat(
+            "Should return number of indexed gems",
+            new Gem(storage).reindex().toCompletableFuture().join(),
+            Matchers.equalTo(count)
+        );
+        MatcherAssert.assertThat(
+            "Should add all gems to specs",
+            new MarshalSpecs().decode(bsto.value(new Key.From("specs.4.8")))
+                .stream().map(NameTuple::name).collect(Collectors.toList()),
+            Matchers.containsInAnyOrder(
+                IntStream.range(0, count).mapToObj(num -> String.format("gem-%d", num)).toArray()
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should write quick specs",
+            bsto.exists(new Key.From("quick/Marshal.4.8/gem-0-3.2.4.gemspec.rz")),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Should remove stale quick specs",
+            bsto.exists(stale),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "Should rebuild compact index",
+            new String(bsto.value(CompactIndex.NAMES), StandardCharsets.UTF_8).split("\n"),
+            Matchers.arrayWithSize(count + 1)
+        );
+    }
+
+    @Test
+    void failsReindexWithoutChecksums(@TempDir final Path tmp) throws IOException {
+        final Storage storage = new FileStorage(tmp);
+        new BlockingStorage(storage).save(
+            new Key.From("gems", "gviz-0.3.5.gem"), new TestResource("gviz-0.3.5.gem").asBytes()
+        );
+        final Path sha = tmp.resolve("gems").resolve("gviz-0.3.5.gem.sha256");
+        Files.createDirectories(sha);
+        Files.write(sha.resolve("file"), new byte[0]);
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> new Gem(storage).reindex().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Should not write index",
+            Files.exists(tmp.resolve("specs.4.8")),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Push gems concurrently with many SDK instances sharing one storage
+     * and check that index contains all of them.
+     * @param storage Storage
+     * @throws IOException On error
+     */
+    private static void pushConcurrently(final Storage storage) throws IOException {
+        final int count = 30;
+        final List<Gem> sdks = IntStream.range(0, 5)
+            .mapToObj(num -> new Gem(storage))
+            .collect(Collectors.toList());
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (int num = 0; num < count; ++num) {
+            bsto.save(
+                new Key.From("gems", String.format("gem-%d-3.2.4.gem", num)),
+                GemTest.gem(String.format("gem-%d", num))
+            );
+        }
+        CompletableFuture.allOf(
+            IntStream.range(0, count).parallel().mapToObj(
+                num -> sdks.get(num % sdks.size()).update(
+                    new Key.From("gems", String.format("gem-%d-3.2.4.gem", num))
+                ).toCompletableFuture()
+            ).toArray(CompletableFuture[]::new)
+        ).join();
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(bsto.value(new Key.From("specs.4.8")))
+                .stream().map(NameTuple::name).collect(Collectors.toList()),
+            Matchers.containsInAnyOrder(
+                IntStream.range(0, count).mapToObj(num -> String.format("gem-%d", num)).toArray()
+            )
+        );
+    }
+
+    /**
+     * Gem package with metadata of builder gem and another name.
+     * @param name Gem name
+     * @return Gem package bytes
+     * @throws IOException On error
+     */
+    private static byte[] gem(final String name) throws IOException {
+        String yaml = "";
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(
+            new TestResource("builder-3.2.4.gem").asInputStream()
+        )) {
+            for (TarArchiveEntry entry = tar.getNextTarEntry(); entry != null;
+                entry = tar.getNextTarEntry()) {
+                if ("metadata.gz".equals(entry.getName())) {
+                    yaml = IOUtils.toString(new GZIPInputStream(tar), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        final ByteArrayOutputStream meta = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(meta)) {
+            gzip.write(
+                yaml.replace("name: builder\n", String.format("name: %s\n", name))
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(res)) {
+            final TarArchiveEntry entry = new TarArchiveEntry("metadata.gz");
+            entry.setSize(meta.size());
+            tar.putArchiveEntry(entry);
+            tar.write(meta.toByteArray());
+            tar.closeArchiveEntry();
+        }
+        return res.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link IndexJournal}.
+ *
+ * @since 1.0
+ */
+final class IndexJournalTest {
+
+    @Test
+    void keepsPendingGemsUntilRemoved() {
+        final IndexJournal journal = new IndexJournal(new InMemoryStorage());
+        final Key first = new Key.From("gems", "first.gem");
+        final Key second = new Key.From("gems", "second.gem");
+        journal.add(first).toCompletableFuture().join();
+        journal.add(second).toCompletableFuture().join();
+        journal.add(second).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should keep added gems",
+            journal.pending().toCompletableFuture().join(),
+            Matchers.containsInAnyOrder(first, second)
+        );
+        journal.remove(Arrays.asList(first, new Key.From("gems", "unknown.gem")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should remove committed gems",
+            journal.pending().toCompletableFuture().join(),
+            Matchers.contains(second)
+        );
+        journal.remove(Collections.singleton(second)).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should be empty",
+            journal.pending().toCompletableFuture().join(),
+            Matchers.empty()
+        );
+    }
+}
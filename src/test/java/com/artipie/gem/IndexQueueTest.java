@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link IndexQueue}.
+ *
+ * @since 1.0
+ */
+final class IndexQueueTest {
+
+    @Test
+    void coalescesKeysIntoOneBatch() {
+        final List<Collection<Key>> batches = new CopyOnWriteArrayList<>();
+        final IndexQueue queue = new IndexQueue(
+            keys -> {
+                batches.add(keys);
+                return CompletableFuture.allOf();
+            },
+            Executors.newSingleThreadScheduledExecutor(),
+            TimeUnit.SECONDS.toMillis(1)
+        );
+        final List<Key> keys = IntStream.range(0, 50)
+            .mapToObj(num -> new Key.From(String.format("gem-%d.gem", num)))
+            .collect(Collectors.toList());
+        CompletableFuture.allOf(
+            keys.parallelStream().map(queue::add).map(CompletionStage::toCompletableFuture)
+                .toArray(CompletableFuture[]::new)
+        ).join();
+        MatcherAssert.assertThat(
+            batches,
+            Matchers.contains(Matchers.containsInAnyOrder(keys.toArray()))
+        );
+    }
+
+    @Test
+    void processesBatchesOneByOne() {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+        final IndexQueue queue = new IndexQueue(
+            keys -> {
+                final Key key = keys.iterator().next();
+                events.add(String.format("start %s", key.string()));
+                final CompletableFuture<Void> res;
+                if (key.string().equals("a")) {
+                    res = first;
+                } else {
+                    res = CompletableFuture.allOf();
+                }
+                return res.thenRun(() -> events.add(String.format("end %s", key.string())));
+            }
+        );
+        final CompletionStage<Void> one = queue.add(new Key.From("a"));
+        while (events.isEmpty()) {
+            Thread.yield();
+        }
+        final CompletionStage<Void> two = queue.add(new Key.From("b"));
+        first.complete(null);
+        one.toCompletableFuture().join();
+        two.toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            events,
+            Matchers.contains("start a", "end a", "start b", "end b")
+        );
+    }
+
+    @Test
+    void failsAllFuturesOfFailedBatch() {
+        final IndexQueue queue = new IndexQueue(
+            keys -> {
+                final CompletableFuture<Void> res = new CompletableFuture<>();
+                res.completeExceptionally(new ArtipieIOException("failed"));
+                return res;
+            }
+        );
+        final List<CompletableFuture<Void>> results = new ArrayList<>(2);
+        results.add(queue.add(new Key.From("one")).toCompletableFuture());
+        results.add(queue.add(new Key.From("two")).toCompletableFuture());
+        for (final CompletableFuture<Void> res : results) {
+            Assertions.assertThrows(CompletionException.class, res::join);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SpecsCache}.
+ *
+ * @since 1.0
+ */
+final class SpecsCacheTest {
+
+    /**
+     * Specs file name.
+     */
+    private static final Key SPECS = new Key.From("specs.4.8");
+
+    @Test
+    void servesCachedFileUntilRefreshed() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(SpecsCacheTest.SPECS, "first".getBytes(StandardCharsets.UTF_8));
+        final SpecsCache cache = new SpecsCache(
+            storage, Collections.singleton(SpecsCacheTest.SPECS)
+        );
+        cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join();
+        bsto.save(SpecsCacheTest.SPECS, "second".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            "Should serve cached file",
+            SpecsCacheTest.string(cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join()),
+            Matchers.equalTo("first")
+        );
+        cache.refresh().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should serve refreshed file",
+            SpecsCacheTest.string(cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join()),
+            Matchers.equalTo("second")
+        );
+    }
+
+    @Test
+    void reloadsFilesOfNewGeneration() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(SpecsCacheTest.SPECS, "first".getBytes(StandardCharsets.UTF_8));
+        final SpecsCache cache = new SpecsCache(
+            storage, Collections.singleton(SpecsCacheTest.SPECS),
+            new IndexGeneration(storage, Duration.ZERO)
+        );
+        cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join();
+        bsto.save(SpecsCacheTest.SPECS, "second".getBytes(StandardCharsets.UTF_8));
+        new IndexGeneration(storage).next().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            SpecsCacheTest.string(cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join()),
+            Matchers.equalTo("second")
+        );
+    }
+
+    @Test
+    void advancesModificationTimeOnlyWhenFileChanges() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(SpecsCacheTest.SPECS, "first".getBytes(StandardCharsets.UTF_8));
+        final SpecsCache cache = new SpecsCache(
+            storage, Collections.singleton(SpecsCacheTest.SPECS),
+            new IndexGeneration(storage, Duration.ZERO)
+        );
+        bsto.save(IndexGeneration.KEY, "0a 1600000000000".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            "Should use commit time of generation",
+            SpecsCacheTest.modified(cache),
+            Matchers.equalTo(Instant.ofEpochMilli(1_600_000_000_000L))
+        );
+        bsto.save(IndexGeneration.KEY, "0b 1700000000000".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            "Should keep time of unchanged file",
+            SpecsCacheTest.modified(cache),
+            Matchers.equalTo(Instant.ofEpochMilli(1_600_000_000_000L))
+        );
+        bsto.save(SpecsCacheTest.SPECS, "second".getBytes(StandardCharsets.UTF_8));
+        bsto.save(IndexGeneration.KEY, "0c 1800000000000".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            "Should advance time of changed file",
+            SpecsCacheTest.modified(cache),
+            Matchers.equalTo(Instant.ofEpochMilli(1_800_000_000_000L))
+        );
+    }
+
+    @Test
+    void doesNotCacheFilesOverLimit() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(SpecsCacheTest.SPECS, "first".getBytes(StandardCharsets.UTF_8));
+        final SpecsCache cache = new SpecsCache(
+            storage, Collections.singleton(SpecsCacheTest.SPECS), 2L
+        );
+        cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join();
+        bsto.save(SpecsCacheTest.SPECS, "second".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            SpecsCacheTest.string(cache.get(SpecsCacheTest.SPECS).toCompletableFuture().join()),
+            Matchers.equalTo("second")
+        );
+    }
+
+    @Test
+    void returnsEmptyForMissingFile() {
+        MatcherAssert.assertThat(
+            new SpecsCache(new InMemoryStorage(), Collections.singleton(SpecsCacheTest.SPECS))
+                .get(SpecsCacheTest.SPECS).toCompletableFuture().join().isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Modification time of cached specs file.
+     * @param cache Specs cache
+     * @return Modification time
+     */
+    private static Instant modified(final SpecsCache cache) {
+        return cache.revision(SpecsCacheTest.SPECS).toCompletableFuture().join()
+            .get().modified().get();
+    }
+
+    /**
+     * Read file buffer as string.
+     * @param file File buffer
+     * @return String
+     */
+    private static String string(final Optional<ByteBuffer> file) {
+        return StandardCharsets.UTF_8.decode(file.get()).toString();
+    }
+}
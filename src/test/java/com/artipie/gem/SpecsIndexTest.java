@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SpecsIndex}.
+ *
+ * @since 1.0
+ */
+final class SpecsIndexTest {
+
+    @Test
+    void sortsReleasedSpecs() {
+        MatcherAssert.assertThat(
+            new SpecsIndex(
+                Arrays.asList(
+                    new NameTuple("rake", "13.0.1", "ruby"),
+                    new NameTuple("rails", "6.0.2.2", "java"),
+                    new NameTuple("rails", "6.0.2.2", "ruby"),
+                    new NameTuple("rails", "5.10", "ruby"),
+                    new NameTuple("rails", "5.9", "ruby"),
+                    new NameTuple("rails", "7.0.0.rc1", "ruby")
+                )
+            ).released(),
+            Matchers.contains(
+                new NameTuple("rails", "5.9", "ruby"),
+                new NameTuple("rails", "5.10", "ruby"),
+                new NameTuple("rails", "6.0.2.2", "ruby"),
+                new NameTuple("rails", "6.0.2.2", "java"),
+                new NameTuple("rake", "13.0.1", "ruby")
+            )
+        );
+    }
+
+    @Test
+    void findsLatestSpecs() {
+        MatcherAssert.assertThat(
+            new SpecsIndex(
+                Arrays.asList(
+                    new NameTuple("rails", "6.0.1", "ruby"),
+                    new NameTuple("rails", "6.0.0", "java"),
+                    new NameTuple("rails", "6.1.0.beta", "ruby"),
+                    new NameTuple("nokogiri", "1.10", "ruby"),
+                    new NameTuple("nokogiri", "1.10", "x86-mingw32"),
+                    new NameTuple("nokogiri", "1.9", "java")
+                )
+            ).latest(),
+            Matchers.contains(
+                new NameTuple("nokogiri", "1.10", "ruby"),
+                new NameTuple("nokogiri", "1.10", "x86-mingw32"),
+                new NameTuple("rails", "6.0.1", "ruby")
+            )
+        );
+    }
+
+    @Test
+    void findsPrereleaseSpecs() {
+        MatcherAssert.assertThat(
+            new SpecsIndex(
+                Arrays.asList(
+                    new NameTuple("rails", "6.0.1", "ruby"),
+                    new NameTuple("rails", "6.1.0.beta", "ruby"),
+                    new NameTuple("rails", "6.1.0-rc1", "ruby")
+                )
+            ).prerelease(),
+            Matchers.contains(
+                new NameTuple("rails", "6.1.0.beta", "ruby"),
+                new NameTuple("rails", "6.1.0.pre.rc1", "ruby")
+            )
+        );
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.marshal.MarshalSpecs;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link StorageIndex}.
+ *
+ * @since 1.0
+ */
+final class StorageIndexTest {
+
+    @Test
+    void writesSameIndexAsIndexer() {
+        final Storage storage = new InMemoryStorage();
+        new StorageIndex(storage).add(
+            Collections.singletonList(StorageIndexTest.spec("builder-3.2.4.gem"))
+        ).toCompletableFuture().join();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (final String name : new String[] {
+            "specs.4.8", "latest_specs.4.8", "prerelease_specs.4.8",
+        }) {
+            MatcherAssert.assertThat(
+                name,
+                bsto.value(new Key.From(name)),
+                Matchers.equalTo(new TestResource(String.format("test/%s", name)).asBytes())
+            );
+        }
+        MatcherAssert.assertThat(
+            bsto.exists(new Key.From("quick/Marshal.4.8/builder-3.2.4.gemspec.rz")),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void appendsToExistingIndex() {
+        final Storage storage = new InMemoryStorage();
+        new TestResource("test").addFilesTo(storage, Key.ROOT);
+        new StorageIndex(storage).add(
+            Arrays.asList(
+                StorageIndexTest.spec("rails-6.0.2.2.gem"), StorageIndexTest.spec("gviz-0.3.5.gem")
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(
+                new BlockingStorage(storage).value(new Key.From("latest_specs.4.8"))
+            ),
+            Matchers.contains(
+                new NameTuple("builder", "3.2.4", "ruby"),
+                new NameTuple("gviz", "0.3.5", "ruby"),
+                new NameTuple("rails", "6.0.2.2", "ruby")
+            )
+        );
+    }
+
+    @Test
+    void doesNotRewriteUnchangedFiles() {
+        final Storage storage = new InMemoryStorage();
+        new TestResource("test").addFilesTo(storage, Key.ROOT);
+        final Key prerelease = new Key.From("prerelease_specs.4.8.gz");
+        new BlockingStorage(storage).save(prerelease, new byte[] {1});
+        new StorageIndex(storage).add(
+            Collections.singletonList(StorageIndexTest.spec("rails-6.0.2.2.gem"))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).value(prerelease),
+            Matchers.equalTo(new byte[] {1})
+        );
+    }
+
+    @Test
+    void removesGemAndRecomputesItsLatestSpecs() {
+        final Storage storage = new InMemoryStorage();
+        final StorageIndex index = new StorageIndex(storage);
+        index.add(
+            Arrays.asList(
+                StorageIndexTest.spec("builder-3.2.4.gem"), StorageIndexTest.spec("gviz-0.3.5.gem")
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should remove indexed gem",
+            index.remove(new NameTuple("gviz", "0.3.5", "ruby")).toCompletableFuture().join(),
+            Matchers.is(true)
+        );
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        for (final String name : new String[] {"specs.4.8", "latest_specs.4.8"}) {
+            MatcherAssert.assertThat(
+                name,
+                new MarshalSpecs().decode(bsto.value(new Key.From(name))),
+                Matchers.contains(new NameTuple("builder", "3.2.4", "ruby"))
+            );
+        }
+        MatcherAssert.assertThat(
+            "Should remove quick spec",
+            bsto.exists(new Key.From("quick/Marshal.4.8/gviz-0.3.5.gemspec.rz")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void skipsGemWithInvalidName() {
+        final Storage storage = new InMemoryStorage();
+        new StorageIndex(storage).add(
+            Arrays.asList(
+                StorageIndexTest.spec("invalid-name.gem"), StorageIndexTest.spec("gviz-0.3.5.gem")
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).list(GemKeys.QUICK),
+            Matchers.contains(new Key.From("quick/Marshal.4.8/gviz-0.3.5.gemspec.rz"))
+        );
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(
+                new BlockingStorage(storage).value(new Key.From("specs.4.8"))
+            ),
+            Matchers.contains(new NameTuple("gviz", "0.3.5", "ruby"))
+        );
+    }
+
+    @Test
+    void doesNotRemoveUnknownGem() {
+        final Storage storage = new InMemoryStorage();
+        new TestResource("test").addFilesTo(storage, Key.ROOT);
+        MatcherAssert.assertThat(
+            new StorageIndex(storage).remove(new NameTuple("gviz", "0.3.5", "ruby"))
+                .toCompletableFuture().join(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Spec of gem from resources.
+     * @param name Resource name
+     * @return Gem spec
+     */
+    private static GemSpec spec(final String name) {
+        return new GemPackage(new Content.From(new TestResource(name).asBytes()))
+            .spec().toCompletableFuture().join();
+    }
+}
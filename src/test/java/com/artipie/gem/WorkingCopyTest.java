@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link WorkingCopy}.
+ *
+ * @since 1.0
+ */
+final class WorkingCopyTest {
+
+    /**
+     * Specs file.
+     */
+    private static final Key SPECS = new Key.From("specs.4.8");
+
+    /**
+     * Latest specs file.
+     */
+    private static final Key LATEST = new Key.From("latest_specs.4.8");
+
+    /**
+     * Gem key.
+     */
+    private static final Key GEM = new Key.From("gems", "builder-3.2.4.gem");
+
+    /**
+     * Index file names.
+     */
+    private static final Collection<Key> NAMES = Arrays.asList(
+        WorkingCopyTest.SPECS, WorkingCopyTest.LATEST
+    );
+
+    @Test
+    void copiesBackChangedFilesOnly(@TempDir final Path tmp) throws Exception {
+        final Storage storage = WorkingCopyTest.storage();
+        final WorkingCopy work = new WorkingCopy(storage, WorkingCopyTest.NAMES, sto -> tmp);
+        final Path dir = work.checkout(Collections.singleton(WorkingCopyTest.GEM))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should copy gem to working copy",
+            Files.exists(dir.resolve("gems").resolve("builder-3.2.4.gem")),
+            Matchers.is(true)
+        );
+        Files.write(dir.resolve("specs.4.8"), "new".getBytes(StandardCharsets.UTF_8));
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(WorkingCopyTest.LATEST, "untouched".getBytes(StandardCharsets.UTF_8));
+        work.commit(Collections.singleton(WorkingCopyTest.GEM)).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should copy back changed file",
+            new String(bsto.value(WorkingCopyTest.SPECS), StandardCharsets.UTF_8),
+            Matchers.equalTo("new")
+        );
+        MatcherAssert.assertThat(
+            "Should not copy back unchanged file",
+            new String(bsto.value(WorkingCopyTest.LATEST), StandardCharsets.UTF_8),
+            Matchers.equalTo("untouched")
+        );
+        MatcherAssert.assertThat(
+            "Should remove gem from working copy",
+            Files.exists(dir.resolve("gems").resolve("builder-3.2.4.gem")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void copiesBackQuickSpecs(@TempDir final Path tmp) throws Exception {
+        final Storage storage = WorkingCopyTest.storage();
+        final WorkingCopy work = new WorkingCopy(storage, WorkingCopyTest.NAMES, sto -> tmp);
+        final Path quick = work.checkout(Collections.singleton(WorkingCopyTest.GEM))
+            .toCompletableFuture().join().resolve("quick").resolve("Marshal.4.8");
+        Files.createDirectories(quick);
+        Files.write(
+            quick.resolve("builder-3.2.4.gemspec.rz"), "spec".getBytes(StandardCharsets.UTF_8)
+        );
+        work.commit(Collections.singleton(WorkingCopyTest.GEM)).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should copy back quick spec",
+            new String(
+                new BlockingStorage(storage).value(
+                    new Key.From("quick", "Marshal.4.8", "builder-3.2.4.gemspec.rz")
+                ),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("spec")
+        );
+        MatcherAssert.assertThat(
+            "Should remove quick spec from working copy",
+            Files.exists(quick.resolve("builder-3.2.4.gemspec.rz")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void doesNotCopyIndexFiles(@TempDir final Path tmp) {
+        MatcherAssert.assertThat(
+            Files.exists(
+                new WorkingCopy(WorkingCopyTest.storage(), WorkingCopyTest.NAMES, sto -> tmp)
+                    .checkout(Collections.emptyList()).toCompletableFuture().join()
+                    .resolve("specs.4.8")
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void resyncsChecksumsWhenGenerationChanges(@TempDir final Path tmp) throws Exception {
+        final Storage storage = WorkingCopyTest.storage();
+        final WorkingCopy work = new WorkingCopy(storage, WorkingCopyTest.NAMES, sto -> tmp);
+        work.checkout(Collections.emptyList()).toCompletableFuture().join();
+        work.commit(Collections.emptyList()).toCompletableFuture().join();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(WorkingCopyTest.LATEST, "changed".getBytes(StandardCharsets.UTF_8));
+        work.advance().toCompletableFuture().join();
+        final Path dir = work.checkout(Collections.emptyList()).toCompletableFuture().join();
+        bsto.save(WorkingCopyTest.LATEST, "other".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("latest_specs.4.8"), "changed".getBytes(StandardCharsets.UTF_8));
+        work.commit(Collections.emptyList()).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should compare local file with checksum of new generation",
+            new String(bsto.value(WorkingCopyTest.LATEST), StandardCharsets.UTF_8),
+            Matchers.equalTo("other")
+        );
+    }
+
+    @Test
+    void treatsMissingIndexFileAsEmpty(@TempDir final Path tmp) throws Exception {
+        final Storage storage = WorkingCopyTest.storage();
+        Files.write(tmp.resolve("latest_specs.4.8"), new byte[0]);
+        new BlockingStorage(storage).delete(WorkingCopyTest.LATEST);
+        MatcherAssert.assertThat(
+            Files.exists(
+                new WorkingCopy(storage, WorkingCopyTest.NAMES, sto -> tmp)
+                    .checkout(Collections.emptyList()).toCompletableFuture().join()
+                    .resolve("latest_specs.4.8")
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Storage with index files and gem.
+     * @return Storage
+     */
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(WorkingCopyTest.SPECS, "specs".getBytes(StandardCharsets.UTF_8));
+        bsto.save(WorkingCopyTest.LATEST, "latest".getBytes(StandardCharsets.UTF_8));
+        bsto.save(WorkingCopyTest.GEM, "gem".getBytes(StandardCharsets.UTF_8));
+        return storage;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Admission}.
+ *
+ * @since 1.0
+ */
+final class AdmissionTest {
+
+    @Test
+    void limitsPushesInFlight() {
+        final Admission admission = new Admission(2, 100L, Duration.ofSeconds(1L));
+        admission.admit(1L);
+        admission.admit(1L);
+        MatcherAssert.assertThat(
+            "Should reject third push",
+            admission.admit(1L),
+            Matchers.is(false)
+        );
+        admission.uploaded(1L);
+        admission.indexed();
+        MatcherAssert.assertThat(
+            "Should admit push after indexing",
+            admission.admit(1L),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void limitsUploadingBytes() {
+        final Admission admission = new Admission(10, 100L, Duration.ofSeconds(1L));
+        admission.admit(60L);
+        MatcherAssert.assertThat(
+            "Should reject upload over bytes limit",
+            admission.admit(60L),
+            Matchers.is(false)
+        );
+        admission.uploaded(60L);
+        MatcherAssert.assertThat(
+            "Should admit upload after previous one is saved",
+            admission.admit(60L),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Should count bytes of admitted upload",
+            admission.admit(60L),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void reportsUtilisation() {
+        final Admission admission = new Admission(10, 100L, Duration.ofSeconds(1L));
+        admission.admit(20L);
+        admission.admit(40L);
+        admission.uploaded(20L);
+        MatcherAssert.assertThat(
+            "Should report pushes in flight",
+            admission.inflight(),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            "Should report uploading bytes",
+            admission.uploading(),
+            Matchers.equalTo(40L)
+        );
+    }
+
+    @Test
+    void admitsLargeUploadWhenIdle() {
+        MatcherAssert.assertThat(
+            new Admission(10, 100L, Duration.ofSeconds(1L)).admit(1000L),
+            Matchers.is(true)
+        );
+    }
+}
@@ -23,7 +23,10 @@
  */
 package com.artipie.gem.http;
 
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
 import com.artipie.asto.fs.FileStorage;
+import com.artipie.gem.Gem;
 import com.artipie.http.Headers;
 import com.artipie.http.hm.IsJson;
 import com.artipie.http.hm.RsHasBody;
@@ -53,13 +56,17 @@ final class ApiGetSliceTest {
 
     @Test
     public void queryResultsInOkResponse(@TempDir final Path tmp) throws IOException {
-        final Path target = tmp.resolve("gviz-0.3.5.gem");
+        final Path target = tmp.resolve("gems").resolve("gviz-0.3.5.gem");
+        Files.createDirectories(target.getParent());
         try (InputStream is = this.getClass().getResourceAsStream("/gviz-0.3.5.gem");
             OutputStream os = Files.newOutputStream(target)) {
             IOUtils.copy(is, os);
         }
+        final Storage storage = new FileStorage(tmp);
+        new Gem(storage).update(new Key.From("gems", "gviz-0.3.5.gem"))
+            .toCompletableFuture().join();
         MatcherAssert.assertThat(
-            new ApiGetSlice(new FileStorage(tmp)),
+            new ApiGetSlice(storage),
             new SliceHasResponse(
                 Matchers.allOf(
                     new RsHasBody(
@@ -69,6 +76,19 @@ final class ApiGetSliceTest {
                                 new JsonValueIs("https://github.com/melborne/Gviz")
                             )
                         )
+                    ),
+                    new RsHasBody(
+                        new IsJson(
+                            new JsonHas(
+                                "sha",
+                                new JsonValueIs(
+                                    String.join(
+                                        "", "66636b839f96dccffb9f51ae06252e19",
+                                        "836bb7ceb20dcf8f18918ae77e94b135"
+                                    )
+                                )
+                            )
+                        )
                     )
                 ),
                 new RequestLine(RqMethod.GET, "/api/v1/gems/gviz.json"),
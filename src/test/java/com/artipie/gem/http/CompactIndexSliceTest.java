@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CompactIndexSlice}.
+ *
+ * @since 1.0
+ */
+final class CompactIndexSliceTest {
+
+    /**
+     * Versions file.
+     */
+    private static final String VERSIONS =
+        "created_at: 2021-01-01T00:00:00Z\n---\ngviz 0.3.5 0123456789abcdef0123456789abcdef\n";
+
+    @Test
+    void servesVersionsFile() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasHeaders(
+                        new Header("Content-Type", "text/plain; charset=utf-8"),
+                        new Header(
+                            "Content-Length",
+                            String.valueOf(CompactIndexSliceTest.VERSIONS.length())
+                        ),
+                        new Header("Accept-Ranges", "none")
+                    ),
+                    new RsHasBody(CompactIndexSliceTest.VERSIONS, StandardCharsets.UTF_8)
+                ),
+                new RequestLine(RqMethod.GET, "/versions")
+            )
+        );
+    }
+
+    @Test
+    void servesInfoFile() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasBody("---\n0.3.5 |checksum:abc\n", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/info/gviz")
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForUnknownGem() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/info/rails")
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForInvalidName() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/info/..")
+            )
+        );
+    }
+
+    @Test
+    void rejectsRangeBeyondEndOfFile() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_RANGE),
+                new RequestLine(RqMethod.GET, "/versions"),
+                new Headers.From(
+                    "Range",
+                    String.format("bytes=%d-", CompactIndexSliceTest.VERSIONS.length())
+                ),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsFullFileForSatisfiableRange() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasBody(CompactIndexSliceTest.VERSIONS, StandardCharsets.UTF_8)
+                ),
+                new RequestLine(RqMethod.GET, "/versions"),
+                new Headers.From("Range", "bytes=10-"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    /**
+     * Storage with compact index.
+     * @return Storage
+     */
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        bsto.save(
+            new Key.From("versions"),
+            CompactIndexSliceTest.VERSIONS.getBytes(StandardCharsets.UTF_8)
+        );
+        bsto.save(
+            new Key.From("info", "gviz"),
+            "---\n0.3.5 |checksum:abc\n".getBytes(StandardCharsets.UTF_8)
+        );
+        return storage;
+    }
+}
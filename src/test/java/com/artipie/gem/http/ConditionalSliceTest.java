@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.gem.IndexGeneration;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.slice.SliceDownload;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ConditionalSlice}.
+ *
+ * @since 1.0
+ */
+final class ConditionalSliceTest {
+
+    @Test
+    void returnsNotModifiedForMatchingEtag() {
+        final Storage storage = new InMemoryStorage();
+        final byte[] data = new TestResource("gviz-0.3.5.gem").asBytes();
+        new BlockingStorage(storage).save(new Key.From("gems", "gviz-0.3.5.gem"), data);
+        final String etag = String.format(
+            "\"%s\"",
+            new ContentDigest(new Content.From(data), Digests.SHA256).hex()
+                .toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            new ConditionalSlice(new Gem(storage), new SliceDownload(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, "/gems/gviz-0.3.5.gem"),
+                new Headers.From("If-None-Match", String.format("\"other\", %s", etag)),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsContentForChangedEtag() {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("gems", "gviz-0.3.5.gem"), new TestResource("gviz-0.3.5.gem").asBytes()
+        );
+        MatcherAssert.assertThat(
+            new ConditionalSlice(new Gem(storage), new SliceDownload(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.GET, "/gems/gviz-0.3.5.gem"),
+                new Headers.From("If-None-Match", "\"other\""),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsNotModifiedForUnchangedSpecs() {
+        final Storage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("specs.4.8"), "specs".getBytes(StandardCharsets.UTF_8)
+        );
+        new IndexGeneration(storage).next().toCompletableFuture().join();
+        final Gem gem = new Gem(storage);
+        MatcherAssert.assertThat(
+            new ConditionalSlice(gem, new SpecsSlice(gem)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From(
+                    "If-Modified-Since",
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                        ZonedDateTime.now(ZoneOffset.UTC).plusHours(1L)
+                    )
+                ),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void passesRequestsOfUnknownFiles() {
+        MatcherAssert.assertThat(
+            new ConditionalSlice(
+                new Gem(new InMemoryStorage()), new SliceDownload(new InMemoryStorage())
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/gems/unknown.gem"),
+                new Headers.From("If-None-Match", "*"),
+                Content.EMPTY
+            )
+        );
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.gem.marshal.MarshalReader;
+import com.artipie.gem.marshal.Symbol;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.Description;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link DependenciesSlice}.
+ *
+ * @since 1.0
+ */
+final class DependenciesSliceTest {
+
+    @Test
+    void returnsDependenciesOfRequestedGems() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Gem gem = new Gem(storage);
+        for (final String name : Arrays.asList("rails-6.0.2.2.gem", "gviz-0.3.5.gem")) {
+            final Key key = new Key.From("gems", name);
+            bsto.save(key, new TestResource(name).asBytes());
+            gem.update(key).toCompletableFuture().join();
+        }
+        MatcherAssert.assertThat(
+            new DependenciesSlice(gem),
+            new SliceHasResponse(
+                new RsHasBody(new DependenciesSliceTest.IsMarshal("[rails 6.0.2.2 ruby]")),
+                new RequestLine(RqMethod.GET, "/api/v1/dependencies?gems=rails,unknown"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsEmptyListWithoutGems() {
+        MatcherAssert.assertThat(
+            new DependenciesSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasBody(new DependenciesSliceTest.IsMarshal("[]")),
+                new RequestLine(RqMethod.GET, "/api/v1/dependencies")
+            )
+        );
+    }
+
+    /**
+     * Matcher of Marshal dependencies list by names, versions and platforms.
+     * @since 1.0
+     */
+    private static final class IsMarshal extends TypeSafeMatcher<byte[]> {
+
+        /**
+         * Expected gems string.
+         */
+        private final String expected;
+
+        /**
+         * New matcher.
+         * @param expected Expected gems string, e.g. {@code [name version platform]}
+         */
+        IsMarshal(final String expected) {
+            super();
+            this.expected = expected;
+        }
+
+        @Override
+        public void describeTo(final Description description) {
+            description.appendText("Marshal dependencies ").appendValue(this.expected);
+        }
+
+        @Override
+        protected boolean matchesSafely(final byte[] bytes) {
+            final StringBuilder res = new StringBuilder();
+            for (final Object item : (List<?>) new MarshalReader(bytes).read()) {
+                final Map<?, ?> gem = (Map<?, ?>) item;
+                res.append(
+                    String.format(
+                        "%s %s %s",
+                        gem.get(new Symbol("name")),
+                        gem.get(new Symbol("number")),
+                        gem.get(new Symbol("platform"))
+                    )
+                );
+            }
+            return String.format("[%s]", res).equals(this.expected);
+        }
+    }
+}
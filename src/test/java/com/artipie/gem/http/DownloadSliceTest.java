@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import com.artipie.http.hm.ResponseMatcher;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link DownloadSlice}.
+ *
+ * @since 1.0
+ */
+final class DownloadSliceTest {
+
+    /**
+     * Gem content.
+     */
+    private static final byte[] DATA = "gem".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Repository storage.
+     */
+    private Storage storage;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+        new BlockingStorage(this.storage).save(
+            new Key.From("gems", "builder-3.2.4.gem"), DownloadSliceTest.DATA
+        );
+    }
+
+    @Test
+    void downloadsFile() {
+        MatcherAssert.assertThat(
+            new DownloadSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(DownloadSliceTest.DATA),
+                new RequestLine(RqMethod.GET, "/gems/builder-3.2.4.gem")
+            )
+        );
+    }
+
+    @Test
+    void answersHeadWithoutBody() {
+        MatcherAssert.assertThat(
+            new DownloadSlice(this.storage),
+            new SliceHasResponse(
+                new ResponseMatcher(
+                    RsStatus.OK,
+                    new byte[0],
+                    new Header("Content-Disposition", "attachment; filename=\"builder-3.2.4.gem\""),
+                    new Header("Accept-Ranges", "none"),
+                    new Header("Content-Length", "3")
+                ),
+                new RequestLine(RqMethod.HEAD, "/gems/builder-3.2.4.gem")
+            )
+        );
+    }
+
+    @Test
+    void rejectsOverflowingRange() {
+        MatcherAssert.assertThat(
+            new DownloadSlice(this.storage),
+            new SliceHasResponse(
+                new ResponseMatcher(
+                    RsStatus.BAD_RANGE, new Header("Content-Range", "bytes */3")
+                ),
+                new RequestLine(RqMethod.GET, "/gems/builder-3.2.4.gem"),
+                new Headers.From("Range", "bytes=99999999999999999999-"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() {
+        MatcherAssert.assertThat(
+            new DownloadSlice(this.storage),
+            new SliceHasResponse(
+                new ResponseMatcher(
+                    RsStatus.BAD_RANGE, new Header("Content-Range", "bytes */3")
+                ),
+                new RequestLine(RqMethod.GET, "/gems/builder-3.2.4.gem"),
+                new Headers.From("Range", "bytes=3-"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForMissingFile() {
+        MatcherAssert.assertThat(
+            new DownloadSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.HEAD, "/gems/unknown.gem")
+            )
+        );
+    }
+}
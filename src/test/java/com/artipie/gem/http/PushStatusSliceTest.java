@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.gem.GemKeys;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link PushStatusSlice}.
+ *
+ * @since 1.0
+ */
+final class PushStatusSliceTest {
+
+    /**
+     * Push id.
+     */
+    private static final String ID = "builder-3.2.4";
+
+    @Test
+    void returnsStatusOfPublishedPush() {
+        final Storage storage = new InMemoryStorage();
+        final Key key = GemKeys.gem(PushStatusSliceTest.ID);
+        new BlockingStorage(storage).save(key, new TestResource("builder-3.2.4.gem").asBytes());
+        final Gem gem = new Gem(storage);
+        gem.update(key).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new PushStatusSlice(gem),
+            new SliceHasResponse(
+                new RsHasBody(
+                    String.format(
+                        "{\"id\":\"%s\",\"status\":\"published\"}", PushStatusSliceTest.ID
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                new RequestLine(
+                    RqMethod.GET, String.format("/api/v1/pushes/%s", PushStatusSliceTest.ID)
+                ),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForUnknownPush() {
+        MatcherAssert.assertThat(
+            new PushStatusSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(
+                    RqMethod.GET, String.format("/api/v1/pushes/%s", PushStatusSliceTest.ID)
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.ContentLength;
+import com.artipie.http.headers.Header;
+import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.ResponseMatcher;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.hamcrest.Matcher;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SubmitGemSlice}.
+ *
+ * @since 1.0
+ */
+final class SubmitGemSliceTest {
+
+    @Test
+    void acceptsGemInAsyncMode() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final Matcher<? super Map.Entry<String, String>> location =
+            new IsHeader("Location", "/api/v1/pushes/builder-3.2.4");
+        final Matcher<? super Map.Entry<String, String>> type =
+            new IsHeader("Content-Type", "application/json; charset=UTF-8");
+        final Matcher<? super Map.Entry<String, String>> length =
+            new IsHeader("Content-Length", "40");
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage), true),
+            new SliceHasResponse(
+                new ResponseMatcher(RsStatus.ACCEPTED, location, type, length),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("builder-3.2.4.gem"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    @Test
+    void createsGemInSyncMode() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("builder-3.2.4.gem"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    @Test
+    void storesGemUnderCanonicalName() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        new SubmitGemSlice(storage, new Gem(storage)).response(
+            new RequestLine(RqMethod.POST, "/api/v1/gems").toString(),
+            SubmitGemSliceTest.length("builder-3.2.4.gem"),
+            new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+        ).send((status, headers, body) -> CompletableFuture.allOf())
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).list(Key.ROOT).stream()
+                .map(Key::string)
+                .filter(name -> name.endsWith(".gem"))
+                .collect(Collectors.toList()),
+            Matchers.contains("gems/builder-3.2.4.gem")
+        );
+    }
+
+    @Test
+    void storesChecksumOfUploadedGem() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        new SubmitGemSlice(storage, new Gem(storage)).response(
+            new RequestLine(RqMethod.POST, "/api/v1/gems").toString(),
+            SubmitGemSliceTest.length("builder-3.2.4.gem"),
+            new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+        ).send((status, headers, body) -> CompletableFuture.allOf())
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new String(
+                new BlockingStorage(storage).value(
+                    new Key.From("gems", "builder-3.2.4.gem.sha256")
+                ),
+                StandardCharsets.US_ASCII
+            ),
+            Matchers.equalTo("99caf08af60c8d7f3a6b004029c4c3c0bdaebced6c949165fe98f1db27fbbc10")
+        );
+    }
+
+    @Test
+    void acceptsIdenticalRepush() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final Gem gem = new Gem(storage);
+        final byte[] content = new TestResource("builder-3.2.4.gem").asBytes();
+        final Key key = new Key.From("gems", "builder-3.2.4.gem");
+        new BlockingStorage(storage).save(key, content);
+        gem.update(key).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, gem),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length(content),
+                new Content.From(content)
+            )
+        );
+    }
+
+    @Test
+    void indexesIdenticalRepushOfNotIndexedGem() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final byte[] content = new TestResource("builder-3.2.4.gem").asBytes();
+        new BlockingStorage(storage).save(new Key.From("gems", "builder-3.2.4.gem"), content);
+        MatcherAssert.assertThat(
+            "Should index gem again",
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length(content),
+                new Content.From(content)
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should add gem to index",
+            new BlockingStorage(storage).exists(new Key.From("specs.4.8")),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void rejectsGarbageBody() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final byte[] garbage = new byte[2048];
+        new Random(0L).nextBytes(garbage);
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length(garbage),
+                new Content.From(garbage)
+            )
+        );
+    }
+
+    @Test
+    void rejectsConflictingRepush() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        new BlockingStorage(storage).save(
+            new Key.From("gems", "builder-3.2.4.gem"), "other".getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CONFLICT),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("builder-3.2.4.gem"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    @Test
+    void rejectsGemWithInvalidName() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("invalid-name.gem"),
+                new Content.From(new TestResource("invalid-name.gem").asBytes())
+            )
+        );
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).list(Key.ROOT),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void rejectsGemWithInvalidMetadata() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("not a gem".getBytes(StandardCharsets.UTF_8)),
+                new Content.From("not a gem".getBytes(StandardCharsets.UTF_8))
+            )
+        );
+    }
+
+    @Test
+    void publishesOneOfConcurrentPushes() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final SubmitGemSlice slice = new SubmitGemSlice(storage, new Gem(storage));
+        final List<CompletableFuture<RsStatus>> statuses = new ArrayList<>(2);
+        for (int idx = 0; idx < 2; ++idx) {
+            final CompletableFuture<RsStatus> status = new CompletableFuture<>();
+            slice.response(
+                new RequestLine(RqMethod.POST, "/api/v1/gems").toString(),
+                SubmitGemSliceTest.length("builder-3.2.4.gem"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            ).send(
+                (code, headers, body) -> {
+                    status.complete(code);
+                    return CompletableFuture.allOf();
+                }
+            );
+            statuses.add(status);
+        }
+        MatcherAssert.assertThat(
+            statuses.stream().map(CompletableFuture::join).collect(Collectors.toList()),
+            Matchers.containsInAnyOrder(RsStatus.CREATED, RsStatus.OK)
+        );
+    }
+
+    @Test
+    void requiresContentLength() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.LENGTH_REQUIRED),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                Headers.EMPTY,
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    @Test
+    void rejectsMalformedContentLength() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                new Headers.From("Content-Length", "12abc"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    @Test
+    void rejectsGemOverAdmissionLimit() {
+        final InMemoryStorage storage = new InMemoryStorage();
+        final Admission admission = new Admission(1, 1024L, Duration.ofSeconds(5L));
+        admission.admit(0L);
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(storage, new Gem(storage), false, admission),
+            new SliceHasResponse(
+                new ResponseMatcher(RsStatus.UNAVAILABLE, new Header("Retry-After", "5")),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                SubmitGemSliceTest.length("builder-3.2.4.gem"),
+                new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+            )
+        );
+    }
+
+    /**
+     * Headers with content length of test resource.
+     * @param resource Resource name
+     * @return Headers
+     */
+    private static Headers length(final String resource) {
+        return SubmitGemSliceTest.length(new TestResource(resource).asBytes());
+    }
+
+    /**
+     * Headers with content length.
+     * @param content Content
+     * @return Headers
+     */
+    private static Headers length(final byte[] content) {
+        return new Headers.From(new ContentLength(content.length));
+    }
+}
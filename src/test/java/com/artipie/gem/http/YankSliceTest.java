@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.gem.NameTuple;
+import com.artipie.gem.marshal.MarshalSpecs;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link YankSlice}.
+ *
+ * @since 1.0
+ */
+final class YankSliceTest {
+
+    @Test
+    void yanksGemVersion() {
+        final Storage storage = new InMemoryStorage();
+        final BlockingStorage bsto = new BlockingStorage(storage);
+        final Key builder = new Key.From("gems", "builder-3.2.4.gem");
+        final Key gviz = new Key.From("gems", "gviz-0.3.5.gem");
+        bsto.save(builder, new TestResource("builder-3.2.4.gem").asBytes());
+        bsto.save(gviz, new TestResource("gviz-0.3.5.gem").asBytes());
+        final Gem gem = new Gem(storage);
+        gem.update(builder).toCompletableFuture().join();
+        gem.update(gviz).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Should respond with OK",
+            new YankSlice(gem),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.DELETE, "/api/v1/gems/yank"),
+                Headers.EMPTY,
+                new Content.From(
+                    "gem_name=gviz&version=0.3.5".getBytes(StandardCharsets.UTF_8)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should remove gem from index",
+            new MarshalSpecs().decode(bsto.value(new Key.From("latest_specs.4.8")))
+                .stream().map(NameTuple::name).collect(Collectors.toList()),
+            Matchers.contains("builder")
+        );
+        MatcherAssert.assertThat(
+            "Should delete gem package",
+            bsto.exists(gviz),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void returnsNotFoundForUnknownVersion() {
+        MatcherAssert.assertThat(
+            new YankSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.DELETE, "/api/v1/gems/yank?gem_name=gviz&version=0.3.5")
+            )
+        );
+    }
+
+    @Test
+    void returnsBadRequestWithoutVersion() {
+        MatcherAssert.assertThat(
+            new YankSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.DELETE, "/api/v1/gems/yank?gem_name=gviz")
+            )
+        );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.spec.GemPackage;
+import com.artipie.gem.spec.GemSpec;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MarshalGemSpec}.
+ *
+ * @since 1.0
+ */
+final class MarshalGemSpecTest {
+
+    @Test
+    void encodesSameQuickSpecAsIndexer() throws IOException {
+        MatcherAssert.assertThat(
+            new MarshalGemSpec().encode(MarshalGemSpecTest.spec("builder-3.2.4.gem")),
+            Matchers.equalTo(
+                IOUtils.toByteArray(
+                    new InflaterInputStream(
+                        new TestResource("test/quick/Marshal.4.8/builder-3.2.4.gemspec.rz")
+                            .asInputStream()
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void encodesDependencies() {
+        final List<?> fields = (List<?>) new MarshalReader(
+            ((UserDump) new MarshalReader(
+                new MarshalGemSpec().encode(MarshalGemSpecTest.spec("rails-6.0.2.2.gem"))
+            ).read()).data()
+        ).read();
+        final PlainObject dep = (PlainObject) ((List<?>) fields.get(9)).get(0);
+        MatcherAssert.assertThat(
+            dep.variable("name").toString(),
+            Matchers.equalTo("activesupport")
+        );
+    }
+
+    /**
+     * Spec of gem from resources.
+     * @param name Resource name
+     * @return Gem spec
+     */
+    private static GemSpec spec(final String name) {
+        return new GemPackage(new Content.From(new TestResource(name).asBytes()))
+            .spec().toCompletableFuture().join();
+    }
+}
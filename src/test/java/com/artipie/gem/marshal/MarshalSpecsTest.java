@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.NameTuple;
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MarshalSpecs}.
+ *
+ * @since 1.0
+ */
+final class MarshalSpecsTest {
+
+    @Test
+    void decodesSpecs() {
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(new TestResource("test/specs.4.8").asBytes()),
+            Matchers.contains(new NameTuple("builder", "3.2.4", "ruby"))
+        );
+    }
+
+    @Test
+    void decodesEmptySpecs() {
+        MatcherAssert.assertThat(
+            new MarshalSpecs().decode(new TestResource("test/prerelease_specs.4.8").asBytes()),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void encodesSameSpecsAsIndexer() {
+        MarshalSpecsTest.assertRoundTrip("specs.4.8");
+    }
+
+    @Test
+    void encodesSameLatestSpecsAsIndexer() {
+        MarshalSpecsTest.assertRoundTrip("latest_specs.4.8");
+    }
+
+    @Test
+    void encodesSamePrereleaseSpecsAsIndexer() {
+        MarshalSpecsTest.assertRoundTrip("prerelease_specs.4.8");
+    }
+
+    @Test
+    void encodesAndDecodesManyTuples() {
+        final List<NameTuple> tuples = Arrays.asList(
+            new NameTuple("rails", "6.0.2.2", "ruby"),
+            new NameTuple("rails", "6.0.2.2", "java"),
+            new NameTuple("rake", "13.0", "ruby")
+        );
+        final MarshalSpecs specs = new MarshalSpecs();
+        MatcherAssert.assertThat(
+            specs.decode(specs.encode(tuples)),
+            Matchers.equalTo(tuples)
+        );
+    }
+
+    /**
+     * Assert specs file is encoded to the same bytes after decoding.
+     * @param name Specs file name
+     */
+    private static void assertRoundTrip(final String name) {
+        final byte[] origin = new TestResource(String.format("test/%s", name)).asBytes();
+        final MarshalSpecs specs = new MarshalSpecs();
+        MatcherAssert.assertThat(
+            specs.encode(specs.decode(origin)),
+            Matchers.equalTo(origin)
+        );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.marshal;
+
+import com.artipie.asto.test.TestResource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MarshalWriter} and {@link MarshalReader}.
+ *
+ * @since 1.0
+ */
+final class MarshalWriterTest {
+
+    @Test
+    void writesSameGemspecAsRuby() throws IOException {
+        final byte[] origin = MarshalWriterTest.gemspec();
+        MatcherAssert.assertThat(
+            new MarshalWriter().write(new MarshalReader(origin).read()),
+            Matchers.equalTo(origin)
+        );
+    }
+
+    @Test
+    void writesSameGemspecDumpAsRuby() throws IOException {
+        final byte[] origin = ((UserDump) new MarshalReader(MarshalWriterTest.gemspec()).read())
+            .data();
+        MatcherAssert.assertThat(
+            new MarshalWriter().write(new MarshalReader(origin).read()),
+            Matchers.equalTo(origin)
+        );
+    }
+
+    @Test
+    void readsGemspecFields() throws IOException {
+        final List<?> fields = (List<?>) new MarshalReader(
+            ((UserDump) new MarshalReader(MarshalWriterTest.gemspec()).read()).data()
+        ).read();
+        MatcherAssert.assertThat(
+            Arrays.asList(fields.get(2), fields.get(14)),
+            Matchers.contains("builder", "http://onestepback.org")
+        );
+    }
+
+    @Test
+    void writesAndReadsValues() {
+        final Map<Object, Object> hash = new LinkedHashMap<>();
+        hash.put(new Symbol("name"), "тест");
+        hash.put(new Symbol("number"), 1_000_000L);
+        hash.put(new Symbol("negative"), -300L);
+        hash.put(new Symbol("nil"), null);
+        hash.put(new Symbol("bool"), false);
+        hash.put(new Symbol("bytes"), new ByteString(new byte[] {1, 2, 3}));
+        MatcherAssert.assertThat(
+            new MarshalReader(new MarshalWriter().write(Arrays.asList(hash, hash))).read(),
+            Matchers.equalTo(Arrays.asList(hash, hash))
+        );
+    }
+
+    /**
+     * Decompressed gemspec of the test repository.
+     * @return Marshal data
+     * @throws IOException On error
+     */
+    private static byte[] gemspec() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOUtils.copy(
+            new InflaterInputStream(
+                new TestResource("test/quick/Marshal.4.8/builder-3.2.4.gemspec.rz").asInputStream()
+            ),
+            out
+        );
+        return out.toByteArray();
+    }
+}
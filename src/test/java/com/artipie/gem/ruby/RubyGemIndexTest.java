@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import com.artipie.asto.test.TestResource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link RubyGemIndex}.
+ *
+ * @since 1.0
+ */
+final class RubyGemIndexTest {
+
+    @Test
+    void generatesIndexWithPooledRuntime(@TempDir final Path tmp) throws Exception {
+        final Path gems = Files.createDirectory(tmp.resolve("gems"));
+        Files.write(
+            gems.resolve("builder-3.2.4.gem"),
+            new TestResource("builder-3.2.4.gem").asBytes()
+        );
+        final RuntimePool pool = new RuntimePool(1, 1, 0);
+        for (int cnt = 0; cnt < 2; ++cnt) {
+            pool.apply(
+                ruby -> {
+                    new RubyGemIndex(ruby).update(tmp);
+                    return tmp;
+                }
+            ).toCompletableFuture().join();
+        }
+        MatcherAssert.assertThat(
+            Files.readAllBytes(tmp.resolve("specs.4.8")),
+            Matchers.equalTo(new TestResource("test/specs.4.8").asBytes())
+        );
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.jruby.Ruby;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RuntimePool}.
+ *
+ * @since 1.0
+ */
+final class RuntimePoolTest {
+
+    /**
+     * Ruby runtime for tests.
+     */
+    private static final Ruby RUBY = Ruby.newInstance();
+
+    @Test
+    void runsFunctionsOnPoolThreads() {
+        MatcherAssert.assertThat(
+            new RuntimePool(() -> RuntimePoolTest.RUBY, 2, 10)
+                .apply(ruby -> Thread.currentThread().getName())
+                .toCompletableFuture().join(),
+            Matchers.startsWith("gem-ruby-")
+        );
+    }
+
+    @Test
+    void createsNoMoreRuntimesThanPoolSize() {
+        final AtomicInteger created = new AtomicInteger();
+        final RuntimePool pool = new RuntimePool(
+            () -> {
+                created.incrementAndGet();
+                return RuntimePoolTest.RUBY;
+            },
+            2, 100
+        );
+        final List<CompletableFuture<Long>> results = IntStream.range(0, 50).mapToObj(
+            num -> pool.apply(ruby -> ruby.evalScriptlet("1 + 1").convertToInteger().getLongValue())
+                .toCompletableFuture()
+        ).collect(Collectors.toList());
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+        MatcherAssert.assertThat(
+            created.get(),
+            Matchers.lessThanOrEqualTo(2)
+        );
+    }
+
+    @Test
+    void rejectsFunctionsWhenQueueIsFull() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final RuntimePool pool = new RuntimePool(() -> RuntimePoolTest.RUBY, 1, 1);
+        pool.apply(ruby -> RuntimePoolTest.await(latch));
+        pool.apply(ruby -> RuntimePoolTest.await(latch));
+        final CompletableFuture<Boolean> rejected = pool
+            .apply(ruby -> RuntimePoolTest.await(latch))
+            .toCompletableFuture();
+        latch.countDown();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class, rejected::join
+        );
+        MatcherAssert.assertThat(
+            err.getCause(),
+            Matchers.instanceOf(RejectedExecutionException.class)
+        );
+    }
+
+    @Test
+    void reportsQueueDepth() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final RuntimePool pool = new RuntimePool(() -> RuntimePoolTest.RUBY, 1, 10);
+        pool.apply(ruby -> RuntimePoolTest.await(latch));
+        final CompletableFuture<Boolean> last = pool
+            .apply(ruby -> RuntimePoolTest.await(latch))
+            .toCompletableFuture();
+        final int queued = pool.queued();
+        latch.countDown();
+        last.join();
+        MatcherAssert.assertThat(
+            queued,
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            pool.averageWait().isNegative(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void warmsUpRuntimesInBackground() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final RuntimePool pool = new RuntimePool(
+            () -> {
+                latch.countDown();
+                return RuntimePoolTest.RUBY;
+            },
+            2, 10, 5
+        );
+        MatcherAssert.assertThat(
+            latch.await(1L, TimeUnit.MINUTES) && pool.runtimes() == 2,
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Await latch.
+     * @param latch Latch
+     * @return True if latch was released
+     */
+    private static boolean await(final CountDownLatch latch) {
+        try {
+            return latch.await(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import com.artipie.asto.test.TestResource;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemPackage}.
+ *
+ * @since 1.0
+ */
+final class GemPackageTest {
+
+    @Test
+    void readsSpec() {
+        final GemSpec spec = new GemPackage(GemPackageTest.chunks("rails-6.0.2.2.gem", 100))
+            .spec().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            Arrays.asList(
+                spec.name(), spec.version().toString(), spec.platform(),
+                spec.summary(), String.join(",", spec.requiredRubyVersion())
+            ),
+            Matchers.contains(
+                "rails", "6.0.2.2", "ruby", "Full-stack web application framework.", ">= 2.5.0"
+            )
+        );
+    }
+
+    @Test
+    void readsDependencies() {
+        MatcherAssert.assertThat(
+            new GemPackage(GemPackageTest.chunks("gviz-0.3.5.gem", 4096))
+                .spec().toCompletableFuture().join()
+                .dependencies().stream().map(GemDependency::toString)
+                .collect(Collectors.toList()),
+            Matchers.contains(
+                "rspec (~> 2.1)", "bundler (~> 1.5)", "rake (>= 0)", "thor (>= 0)"
+            )
+        );
+    }
+
+    @Test
+    void stopsReadingAfterMetadata() {
+        final AtomicInteger emitted = new AtomicInteger();
+        new GemPackage(
+            Flowable.fromPublisher(GemPackageTest.chunks("rails-6.0.2.2.gem", 512))
+                .doOnNext(buf -> emitted.incrementAndGet())
+        ).spec().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            emitted.get(),
+            Matchers.lessThan(new TestResource("rails-6.0.2.2.gem").asBytes().length / 512)
+        );
+    }
+
+    /**
+     * Resource content split to chunks.
+     * @param name Resource name
+     * @param size Chunk size
+     * @return Publisher of chunks
+     */
+    private static Flowable<ByteBuffer> chunks(final String name, final int size) {
+        final byte[] bytes = new TestResource(name).asBytes();
+        return Flowable.range(0, (bytes.length + size - 1) / size).map(
+            idx -> ByteBuffer.wrap(
+                bytes, idx * size, Math.min(size, bytes.length - idx * size)
+            ).slice()
+        );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.spec;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.test.TestResource;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemSpec}.
+ *
+ * @since 1.0
+ */
+final class GemSpecTest {
+
+    @Test
+    void printsInfoAsRuby() {
+        final Map<String, String> info = GemSpecTest.spec("builder-3.2.4.gem").info();
+        MatcherAssert.assertThat(
+            info,
+            Matchers.allOf(
+                Matchers.hasEntry("version", "3.2.4"),
+                Matchers.hasEntry("authors", "[\"Jim Weirich\"]"),
+                Matchers.hasEntry("date", "2019-12-10 00:00:00 UTC"),
+                Matchers.hasEntry("metadata", "{}"),
+                Matchers.hasEntry("required_ruby_version", ">= 0"),
+                Matchers.hasEntry("bindir", "bin")
+            )
+        );
+    }
+
+    @Test
+    void skipsUnsetAttributes() {
+        MatcherAssert.assertThat(
+            GemSpecTest.spec("builder-3.2.4.gem").info(),
+            Matchers.not(Matchers.hasKey("post_install_message"))
+        );
+    }
+
+    @Test
+    void printsDependencies() {
+        MatcherAssert.assertThat(
+            GemSpecTest.spec("rails-6.0.2.2.gem").info().get("dependencies"),
+            Matchers.startsWith(
+                "[<Gem::Dependency type=:runtime name=\"activesupport\" requirements=\"= 6.0.2.2\">"
+            )
+        );
+    }
+
+    /**
+     * Spec of test gem.
+     * @param name Gem file name
+     * @return Gem spec
+     */
+    private static GemSpec spec(final String name) {
+        return new GemPackage(new Content.From(new TestResource(name).asBytes()))
+            .spec().toCompletableFuture().join();
+    }
+}